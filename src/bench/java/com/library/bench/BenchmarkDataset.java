@@ -0,0 +1,91 @@
+package com.library.bench;
+
+import com.library.exception.DatabaseException;
+import com.library.util.DatabaseConnection;
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Generated library database shared by the JMH benchmarks.
+ * A dataset of N rows holds N books, N borrow records and N / 10 members,
+ * built by DatasetGenerator with its default skew.
+ *
+ * Datasets are written once to bench.data.dir (default target/bench-data)
+ * and reused by later runs, since seeding a million rows takes minutes.
+ * DatabaseConnection is a singleton, so open() must run before anything
+ * else touches it and only one dataset can be used per JVM; JMH forks a
+ * fresh JVM for every parameter combination.
+ */
+public final class BenchmarkDataset {
+    private final int rows;
+    private final int members;
+    
+    private BenchmarkDataset(int rows) {
+        this.rows = rows;
+        this.members = Math.max(1, rows / 10);
+    }
+    
+    /**
+     * Points DatabaseConnection at the dataset for the given row count, seeding it first if needed
+     */
+    public static BenchmarkDataset open(int rows) throws DatabaseException {
+        BenchmarkDataset dataset = new BenchmarkDataset(rows);
+        File dataDir = new File(System.getProperty("bench.data.dir", "target/bench-data"));
+        dataDir.mkdirs();
+        File dbFile = new File(dataDir, "library-" + rows + ".db");
+        
+        boolean seeded = dataset.isSeeded(dbFile);
+        if (!seeded) {
+            dbFile.delete();
+            new File(dbFile.getPath() + "-journal").delete();
+            new File(dbFile.getPath() + "-wal").delete();
+            new File(dbFile.getPath() + "-shm").delete();
+        }
+        
+        System.setProperty("db.name", dbFile.getAbsolutePath());
+        DatabaseConnection dbConnection = DatabaseConnection.getInstance();
+        dbConnection.initializeDatabase();
+        if (!seeded) {
+            System.out.println("Seeding " + rows + " rows into " + dbFile + " ...");
+            new DatasetGenerator(rows, dataset.members, rows).generate(dbConnection);
+        }
+        return dataset;
+    }
+    
+    public int getRows() {
+        return rows;
+    }
+    
+    public int getMembers() {
+        return members;
+    }
+    
+    public static String isbn(int i) {
+        return DatasetGenerator.isbn(i);
+    }
+    
+    public static String memberId(int i) {
+        return DatasetGenerator.memberId(i);
+    }
+    
+    /**
+     * Borrow records go in last and in the same transaction, so their count marks a finished seed
+     */
+    private boolean isSeeded(File dbFile) {
+        if (!dbFile.exists()) {
+            return false;
+        }
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dbFile.getAbsolutePath());
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                 "SELECT (SELECT COUNT(*) FROM books), (SELECT COUNT(*) FROM borrow_records)")) {
+            return rs.next() && rs.getInt(1) == rows && rs.getInt(2) >= rows;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+}
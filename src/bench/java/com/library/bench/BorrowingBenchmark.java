@@ -0,0 +1,96 @@
+package com.library.bench;
+
+import com.library.exception.BookNotFoundException;
+import com.library.exception.DatabaseException;
+import com.library.exception.MemberNotFoundException;
+import com.library.model.BorrowRecord;
+import com.library.service.BorrowingService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Checkout transactions through BorrowingService.
+ * Each borrow is undone by a return outside the measured call (and vice versa),
+ * so the dataset is left as it was found. Invocation-level fixtures are fine here
+ * because every call commits to disk and takes far longer than the fixture overhead.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BorrowingBenchmark extends DatasetBenchmark {
+    private BorrowingService borrowingService;
+    private int next;
+    private BorrowRecord borrowed;
+    private BorrowRecord toReturn;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws DatabaseException {
+        openDataset();
+        borrowingService = new BorrowingService();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        closeDataset();
+    }
+    
+    @Benchmark
+    public BorrowRecord borrowBook() throws DatabaseException, BookNotFoundException, MemberNotFoundException {
+        borrowed = borrowNext();
+        return borrowed;
+    }
+    
+    @TearDown(Level.Invocation)
+    public void returnBorrowed() throws DatabaseException {
+        if (borrowed != null) {
+            borrowingService.returnBook(borrowed.getRecordId());
+            borrowed = null;
+        }
+    }
+    
+    @Benchmark
+    public BorrowRecord returnBook() throws DatabaseException {
+        BorrowRecord record = borrowingService.returnBook(toReturn.getRecordId());
+        toReturn = null;
+        return record;
+    }
+    
+    @Setup(Level.Invocation)
+    public void borrowForReturn() throws DatabaseException, BookNotFoundException, MemberNotFoundException {
+        // Only the returnBook benchmark consumes this; left over borrows are returned on teardown
+        if (toReturn == null) {
+            toReturn = borrowNext();
+        }
+    }
+    
+    @TearDown(Level.Iteration)
+    public void returnLeftover() throws DatabaseException {
+        if (toReturn != null) {
+            borrowingService.returnBook(toReturn.getRecordId());
+            toReturn = null;
+        }
+    }
+    
+    /**
+     * Walks members and books in step so no member or copy runs out
+     */
+    private BorrowRecord borrowNext() throws DatabaseException, BookNotFoundException, MemberNotFoundException {
+        int i = next++;
+        return borrowingService.borrowBook(BenchmarkDataset.memberId(i % dataset.getMembers()),
+            BenchmarkDataset.isbn(i % dataset.getRows()));
+    }
+}
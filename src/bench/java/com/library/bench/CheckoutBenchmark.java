@@ -0,0 +1,119 @@
+package com.library.bench;
+
+import com.library.dao.BookDAO;
+import com.library.dao.BorrowRecordDAO;
+import com.library.dao.MemberDAO;
+import com.library.model.Book;
+import com.library.model.BorrowRecord;
+import com.library.model.Member;
+import com.library.service.BookService;
+import com.library.service.BorrowingService;
+import com.library.service.MemberService;
+import com.library.util.DatabaseConnection;
+import java.io.File;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Measures checkouts per second for a borrow + return cycle.
+ * Compares the per-call auto-commit path against BorrowingService,
+ * which runs each operation as a single transaction.
+ *
+ * Usage: java com.library.bench.CheckoutBenchmark [iterations]
+ */
+public class CheckoutBenchmark {
+    private static final int BOOKS = 200;
+    private static final int MEMBERS = 200;
+    
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        
+        File dbFile = File.createTempFile("checkout-bench", ".db");
+        dbFile.deleteOnExit();
+        System.setProperty("db.name", dbFile.getAbsolutePath());
+        
+        DatabaseConnection.getInstance().initializeDatabase();
+        seed();
+        
+        BookDAO bookDAO = new BookDAO();
+        MemberDAO memberDAO = new MemberDAO();
+        BorrowRecordDAO borrowRecordDAO = new BorrowRecordDAO();
+        BorrowingService borrowingService = new BorrowingService();
+        
+        // Warm up both paths
+        runAutoCommit(bookDAO, memberDAO, borrowRecordDAO, iterations / 10);
+        runTransactional(borrowingService, iterations / 10);
+        
+        double autoCommitRate = runAutoCommit(bookDAO, memberDAO, borrowRecordDAO, iterations);
+        double transactionalRate = runTransactional(borrowingService, iterations);
+        
+        System.out.println("=== Checkout Benchmark (" + iterations + " borrow+return cycles) ===");
+        System.out.println(String.format("Auto-commit per DAO call : %10.1f checkouts/s", autoCommitRate));
+        System.out.println(String.format("Single transaction       : %10.1f checkouts/s", transactionalRate));
+        System.out.println(String.format("Speed-up                 : %10.2fx", transactionalRate / autoCommitRate));
+        
+        DatabaseConnection.getInstance().shutdown();
+    }
+    
+    private static void seed() throws Exception {
+        BookService bookService = new BookService();
+        MemberService memberService = new MemberService();
+        for (int i = 0; i < BOOKS; i++) {
+            bookService.addBook(new Book(isbn(i), "Title " + i, "Author " + (i % 50), "Category " + (i % 10),
+                "Publisher", LocalDate.of(2000, 1, 1), 5));
+        }
+        for (int i = 0; i < MEMBERS; i++) {
+            memberService.registerMember(new Member(memberId(i), "First" + i, "Last" + i,
+                "member" + i + "@example.com", "555-0100", "PREMIUM"));
+        }
+    }
+    
+    /**
+     * The pre-transaction sequence: every DAO call auto-commits on its own
+     */
+    private static double runAutoCommit(BookDAO bookDAO, MemberDAO memberDAO,
+                                        BorrowRecordDAO borrowRecordDAO, int iterations) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            String memberId = memberId(i % MEMBERS);
+            String isbn = isbn(i % BOOKS);
+            
+            Member member = memberDAO.findById(memberId);
+            Book book = bookDAO.findByIsbn(isbn);
+            BorrowRecord record = new BorrowRecord(UUID.randomUUID().toString(), memberId, isbn);
+            borrowRecordDAO.createBorrowRecord(record);
+            book.borrowBook();
+            bookDAO.updateBook(book);
+            member.setBorrowedBooksCount(member.getBorrowedBooksCount() + 1);
+            memberDAO.updateMember(member);
+            
+            record = borrowRecordDAO.findById(record.getRecordId());
+            record.returnBook();
+            borrowRecordDAO.updateBorrowRecord(record);
+            book = bookDAO.findByIsbn(isbn);
+            book.returnBook();
+            bookDAO.updateBook(book);
+            member = memberDAO.findById(memberId);
+            member.setBorrowedBooksCount(member.getBorrowedBooksCount() - 1);
+            memberDAO.updateMember(member);
+        }
+        return iterations / ((System.nanoTime() - start) / 1e9);
+    }
+    
+    private static double runTransactional(BorrowingService borrowingService, int iterations) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            BorrowRecord record = borrowingService.borrowBook(memberId(i % MEMBERS), isbn(i % BOOKS));
+            borrowingService.returnBook(record.getRecordId());
+        }
+        return iterations / ((System.nanoTime() - start) / 1e9);
+    }
+    
+    private static String isbn(int i) {
+        return String.format("978%010d", i);
+    }
+    
+    private static String memberId(int i) {
+        return String.format("M%06d", i);
+    }
+}
@@ -0,0 +1,84 @@
+package com.library.bench;
+
+import com.library.exception.BookNotFoundException;
+import com.library.exception.DatabaseException;
+import com.library.exception.MemberNotFoundException;
+import com.library.model.BorrowRecord;
+import com.library.service.BorrowingService;
+import com.library.service.ReportService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Checkout desks and report readers running at the same time, under each SQLite profile.
+ * The rollback-journal profile makes readers and writers wait on each other;
+ * compare its checkout and report scores against WAL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ConcurrencyBenchmark extends DatasetBenchmark {
+    // journal_mode:synchronous, applied before the first connection opens
+    @Param({"DELETE:FULL", "WAL:NORMAL"})
+    public String profile;
+    
+    private final AtomicInteger next = new AtomicInteger();
+    private BorrowingService borrowingService;
+    private ReportService reportService;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws DatabaseException {
+        String[] settings = profile.split(":");
+        System.setProperty("db.journal.mode", settings[0]);
+        System.setProperty("db.synchronous", settings[1]);
+        // Reports must hit the database to contend with the desks, not replay a cached copy
+        System.setProperty("report.cache.ttl.seconds", "0");
+        openDataset();
+        borrowingService = new BorrowingService();
+        reportService = new ReportService();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        closeDataset();
+    }
+    
+    /**
+     * One borrow and its return; each thread takes the next member and book in turn
+     */
+    @Benchmark
+    @Group("desk")
+    @GroupThreads(4)
+    public BorrowRecord checkout() throws DatabaseException, BookNotFoundException, MemberNotFoundException {
+        int i = next.getAndIncrement() & Integer.MAX_VALUE;
+        BorrowRecord record = borrowingService.borrowBook(BenchmarkDataset.memberId(i % dataset.getMembers()),
+            BenchmarkDataset.isbn(i % dataset.getRows()));
+        return borrowingService.returnBook(record.getRecordId());
+    }
+    
+    @Benchmark
+    @Group("desk")
+    @GroupThreads(2)
+    public List<String> report() {
+        return reportService.generateOverdueReport();
+    }
+}
@@ -0,0 +1,26 @@
+package com.library.bench;
+
+import com.library.exception.DatabaseException;
+import com.library.util.DatabaseConnection;
+import com.library.util.FileLogger;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Base state for benchmarks that run against a generated dataset.
+ * Subclasses call openDataset() from their trial setup before creating any DAO or service.
+ */
+public abstract class DatasetBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+    
+    protected BenchmarkDataset dataset;
+    
+    protected void openDataset() throws DatabaseException {
+        dataset = BenchmarkDataset.open(rows);
+    }
+    
+    protected void closeDataset() {
+        DatabaseConnection.getInstance().shutdown();
+        FileLogger.getInstance().shutdown();
+    }
+}
@@ -0,0 +1,262 @@
+package com.library.bench;
+
+import com.library.exception.DatabaseException;
+import com.library.model.Member;
+import com.library.util.DatabaseConnection;
+import com.library.util.Transaction;
+import java.io.File;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Fills the library schema with synthetic circulation data at any scale.
+ * Book popularity follows a Zipf distribution (book 0 is the most borrowed),
+ * members are a STANDARD/STUDENT/PREMIUM mix, and about one record in ten is
+ * still on loan, some of them overdue. Book copies and member counts agree with
+ * the open loans, and every book and member keeps room for two more checkouts.
+ *
+ * Usage: java com.library.bench.DatasetGenerator db-file [books] [members] [records] [zipf-exponent]
+ */
+public class DatasetGenerator {
+    private static final int BATCH_SIZE = 10_000;
+    private static final int HEADROOM = 2;
+    
+    static final String[] TITLE_WORDS = {
+        "history", "ocean", "garden", "science", "river", "winter", "empire", "journey",
+        "silent", "city", "mountain", "secret", "light", "shadow", "machine", "forest",
+        "island", "memory", "storm", "kingdom", "desert", "music", "stone", "fire",
+        "glass", "north", "summer", "language", "theory", "night", "war", "peace"
+    };
+    private static final String[] SURNAMES = {
+        "Smith", "Garcia", "Okafor", "Tanaka", "Novak", "Haddad", "Silva", "Kowalski",
+        "Nguyen", "Ivanova", "Mensah", "Larsen", "Moreau", "Rossi", "Chen", "Patel"
+    };
+    private static final String[] CATEGORIES = {
+        "Fiction", "Science", "History", "Biography", "Poetry", "Travel", "Art", "Technology",
+        "Philosophy", "Children", "Mystery", "Fantasy", "Business", "Health", "Religion", "Cooking"
+    };
+    // Cumulative shares: 60% STANDARD, 30% STUDENT, 10% PREMIUM
+    private static final String[] MEMBERSHIP_TYPES = {"STANDARD", "STUDENT", "PREMIUM"};
+    private static final int[] MEMBERSHIP_PERCENT = {60, 90, 100};
+    
+    private final int books;
+    private final int members;
+    private final int records;
+    private double zipfExponent = 1.0;
+    private long seed = 42L;
+    
+    public DatasetGenerator(int books, int members, int records) {
+        this.books = Math.max(1, books);
+        this.members = Math.max(1, members);
+        this.records = Math.max(0, records);
+    }
+    
+    public void setZipfExponent(double zipfExponent) {
+        this.zipfExponent = zipfExponent;
+    }
+    
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+    
+    public static String isbn(int i) {
+        return String.format("978%010d", i);
+    }
+    
+    public static String memberId(int i) {
+        return String.format("M%07d", i);
+    }
+    
+    /**
+     * Membership type of generated member i, so drivers can pick members without a query
+     */
+    public static String membershipType(int i) {
+        int percent = Math.floorMod(i * 37, 100);
+        for (int t = 0; t < MEMBERSHIP_TYPES.length; t++) {
+            if (percent < MEMBERSHIP_PERCENT[t]) {
+                return MEMBERSHIP_TYPES[t];
+            }
+        }
+        return MEMBERSHIP_TYPES[0];
+    }
+    
+    /**
+     * Inserts the whole dataset in one transaction on the database DatabaseConnection points at.
+     * The tables must exist and hold no generated rows yet.
+     */
+    public void generate(DatabaseConnection dbConnection) throws DatabaseException {
+        Random random = new Random(seed);
+        ZipfDistribution popularity = new ZipfDistribution(books, zipfExponent);
+        LocalDate today = LocalDate.now();
+        
+        int[] totalCopies = new int[books];
+        for (int i = 0; i < books; i++) {
+            // The most popular 1% of titles are stocked in depth
+            totalCopies[i] = i < books / 100 ? 10 : 2 + random.nextInt(4);
+        }
+        int[] borrowLimits = new int[members];
+        for (int i = 0; i < members; i++) {
+            Member member = new Member();
+            member.setMembershipType(membershipType(i));
+            borrowLimits[i] = member.getMaxBorrowLimit();
+        }
+        
+        // Decide which records are still on loan first, so book and member counts agree with them
+        int[] recordBooks = new int[records];
+        int[] recordMembers = new int[records];
+        boolean[] onLoan = new boolean[records];
+        int[] loansPerBook = new int[books];
+        int[] loansPerMember = new int[members];
+        for (int i = 0; i < records; i++) {
+            int book = popularity.sample(random);
+            int member = random.nextInt(members);
+            recordBooks[i] = book;
+            recordMembers[i] = member;
+            if (i % 10 == 0
+                    && loansPerBook[book] < totalCopies[book] - HEADROOM
+                    && loansPerMember[member] < borrowLimits[member] - HEADROOM) {
+                onLoan[i] = true;
+                loansPerBook[book]++;
+                loansPerMember[member]++;
+            }
+        }
+        
+        try (Transaction transaction = dbConnection.beginTransaction();
+             Connection conn = dbConnection.getConnection()) {
+            insertBooks(conn, random, totalCopies, loansPerBook);
+            insertMembers(conn, today, loansPerMember);
+            insertBorrowRecords(conn, random, today, recordBooks, recordMembers, onLoan);
+            transaction.commit();
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to generate dataset: " + e.getMessage(), e);
+        }
+    }
+    
+    private void insertBooks(Connection conn, Random random, int[] totalCopies, int[] loansPerBook) throws SQLException {
+        String sql = "INSERT INTO books (isbn, title, author, category, publisher, publication_date, total_copies, available_copies, is_active) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        int authors = Math.max(1, books / 20);
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < books; i++) {
+                String title = capitalize(TITLE_WORDS[random.nextInt(TITLE_WORDS.length)]) + " of the "
+                    + capitalize(TITLE_WORDS[random.nextInt(TITLE_WORDS.length)]) + " "
+                    + capitalize(TITLE_WORDS[random.nextInt(TITLE_WORDS.length)]);
+                int author = random.nextInt(authors);
+                
+                stmt.setString(1, isbn(i));
+                stmt.setString(2, title);
+                stmt.setString(3, "Author" + author + " " + SURNAMES[author % SURNAMES.length]);
+                stmt.setString(4, CATEGORIES[random.nextInt(CATEGORIES.length)]);
+                stmt.setString(5, "Publisher " + (i % 100));
+                stmt.setDate(6, Date.valueOf(LocalDate.of(1950, 1, 1).plusDays(random.nextInt(365 * 70))));
+                stmt.setInt(7, totalCopies[i]);
+                stmt.setInt(8, totalCopies[i] - loansPerBook[i]);
+                stmt.setBoolean(9, true);
+                addToBatch(stmt, i);
+            }
+            stmt.executeBatch();
+        }
+    }
+    
+    private void insertMembers(Connection conn, LocalDate today, int[] loansPerMember) throws SQLException {
+        String sql = "INSERT INTO members (id, first_name, last_name, email, phone, membership_type, membership_expiry, borrowed_books_count, is_active, registration_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < members; i++) {
+                stmt.setString(1, memberId(i));
+                stmt.setString(2, "First" + i);
+                stmt.setString(3, SURNAMES[i % SURNAMES.length]);
+                stmt.setString(4, "member" + i + "@example.com");
+                stmt.setString(5, "555-0100");
+                stmt.setString(6, membershipType(i));
+                stmt.setDate(7, Date.valueOf(today.plusYears(5)));
+                stmt.setInt(8, loansPerMember[i]);
+                stmt.setBoolean(9, true);
+                stmt.setDate(10, Date.valueOf(today.minusDays(i % 1000)));
+                addToBatch(stmt, i);
+            }
+            stmt.executeBatch();
+        }
+    }
+    
+    private void insertBorrowRecords(Connection conn, Random random, LocalDate today, int[] recordBooks,
+                                     int[] recordMembers, boolean[] onLoan) throws SQLException {
+        String sql = "INSERT INTO borrow_records (record_id, member_id, isbn, borrow_date, due_date, return_date, status, fine_amount) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < records; i++) {
+                // Loans run 14 days; open loans started up to four weeks ago, so about half are overdue
+                LocalDate borrowDate = onLoan[i]
+                    ? today.minusDays(1 + random.nextInt(28))
+                    : today.minusDays(30 + random.nextInt(1000));
+                LocalDate dueDate = borrowDate.plusDays(14);
+                
+                stmt.setString(1, String.format("R%09d", i));
+                stmt.setString(2, memberId(recordMembers[i]));
+                stmt.setString(3, isbn(recordBooks[i]));
+                stmt.setDate(4, Date.valueOf(borrowDate));
+                stmt.setDate(5, Date.valueOf(dueDate));
+                if (onLoan[i]) {
+                    stmt.setDate(6, null);
+                    stmt.setString(7, "BORROWED");
+                    stmt.setDouble(8, 0.0);
+                } else {
+                    LocalDate returnDate = borrowDate.plusDays(1 + random.nextInt(21));
+                    long daysLate = Math.max(0, returnDate.toEpochDay() - dueDate.toEpochDay());
+                    stmt.setDate(6, Date.valueOf(returnDate));
+                    stmt.setString(7, "RETURNED");
+                    stmt.setDouble(8, daysLate * 0.50);
+                }
+                addToBatch(stmt, i);
+            }
+            stmt.executeBatch();
+        }
+    }
+    
+    private static void addToBatch(PreparedStatement stmt, int i) throws SQLException {
+        stmt.addBatch();
+        if ((i + 1) % BATCH_SIZE == 0) {
+            stmt.executeBatch();
+        }
+    }
+    
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: DatasetGenerator db-file [books] [members] [records] [zipf-exponent]");
+            System.exit(1);
+        }
+        File dbFile = new File(args[0]);
+        int books = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int members = args.length > 2 ? Integer.parseInt(args[2]) : books / 10;
+        int records = args.length > 3 ? Integer.parseInt(args[3]) : books;
+        
+        if (dbFile.exists()) {
+            System.err.println("Refusing to overwrite existing database: " + dbFile);
+            System.exit(1);
+        }
+        
+        DatasetGenerator generator = new DatasetGenerator(books, members, records);
+        if (args.length > 4) {
+            generator.setZipfExponent(Double.parseDouble(args[4]));
+        }
+        
+        System.setProperty("db.name", dbFile.getAbsolutePath());
+        DatabaseConnection dbConnection = DatabaseConnection.getInstance();
+        dbConnection.initializeDatabase();
+        
+        long start = System.nanoTime();
+        generator.generate(dbConnection);
+        System.out.println(String.format("Generated %d books, %d members and %d borrow records in %.1f s",
+            books, members, records, (System.nanoTime() - start) / 1e9));
+        
+        dbConnection.shutdown();
+    }
+}
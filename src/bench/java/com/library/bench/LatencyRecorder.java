@@ -0,0 +1,56 @@
+package com.library.bench;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of latency samples in nanoseconds, one per thread and operation.
+ * Percentiles are computed after the run by merging and sorting every sample.
+ */
+public class LatencyRecorder {
+    private long[] samples = new long[1024];
+    private int count;
+    private long errors;
+    
+    public void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+    
+    public void recordError() {
+        errors++;
+    }
+    
+    public int getCount() {
+        return count;
+    }
+    
+    public long getErrors() {
+        return errors;
+    }
+    
+    public static LatencyRecorder merge(Iterable<LatencyRecorder> recorders) {
+        LatencyRecorder merged = new LatencyRecorder();
+        for (LatencyRecorder recorder : recorders) {
+            for (int i = 0; i < recorder.count; i++) {
+                merged.record(recorder.samples[i]);
+            }
+            merged.errors += recorder.errors;
+        }
+        Arrays.sort(merged.samples, 0, merged.count);
+        return merged;
+    }
+    
+    /**
+     * @param percentile between 0 and 100; only valid on a merged recorder
+     * @return the sample at that percentile in milliseconds, or 0 if there are none
+     */
+    public double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return samples[Math.max(0, Math.min(index, count - 1))] / 1e6;
+    }
+}
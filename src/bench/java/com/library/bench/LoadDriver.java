@@ -0,0 +1,238 @@
+package com.library.bench;
+
+import com.library.model.BorrowRecord;
+import com.library.service.BookService;
+import com.library.service.BorrowingService;
+import com.library.service.ReportService;
+import com.library.util.DatabaseConnection;
+import com.library.util.FileLogger;
+import java.io.File;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Replays circulation-desk traffic against a database built by DatasetGenerator.
+ * Each worker thread runs its own services and picks operations from a weighted mix:
+ * borrows of Zipf-popular books, returns of its own earlier loans, catalog searches
+ * and occasional reports. Prints throughput and p50/p99/p99.9 latency per operation.
+ * Loans still open at the end are returned, so the database is left as it was found.
+ *
+ * Usage: java com.library.bench.LoadDriver db-file [threads] [seconds] [warmup-seconds]
+ * The mix is set with -Dload.mix=borrow:30,return:30,search:39,report:1 (the default).
+ * Threads beyond db.connection.pool.size queue for a connection, which the latencies include.
+ */
+public class LoadDriver {
+    public enum Operation { BORROW, RETURN, SEARCH, REPORT }
+    
+    private final int members;
+    private final Map<Operation, Integer> mix;
+    private final ZipfDistribution popularity;
+    
+    public LoadDriver(int books, int members, Map<Operation, Integer> mix) {
+        this.members = members;
+        this.mix = mix;
+        this.popularity = new ZipfDistribution(books, 1.0);
+    }
+    
+    /**
+     * Runs the workers for warmup plus measurement and returns the measured samples per operation
+     */
+    public Map<Operation, LatencyRecorder> run(int threads, long warmupNanos, long measureNanos) throws InterruptedException {
+        long measureStart = System.nanoTime() + warmupNanos;
+        long measureEnd = measureStart + measureNanos;
+        
+        List<Worker> workers = new ArrayList<>();
+        List<Thread> workerThreads = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Worker worker = new Worker(measureStart, measureEnd);
+            Thread thread = new Thread(worker, "load-driver-" + i);
+            workers.add(worker);
+            workerThreads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : workerThreads) {
+            thread.join();
+        }
+        
+        Map<Operation, LatencyRecorder> results = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            List<LatencyRecorder> recorders = new ArrayList<>();
+            for (Worker worker : workers) {
+                recorders.add(worker.recorders.get(operation));
+            }
+            results.put(operation, LatencyRecorder.merge(recorders));
+        }
+        return results;
+    }
+    
+    private Operation pickOperation(ThreadLocalRandom random) {
+        int total = 0;
+        for (int weight : mix.values()) {
+            total += weight;
+        }
+        int pick = random.nextInt(total);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                return entry.getKey();
+            }
+        }
+        return Operation.SEARCH;
+    }
+    
+    private class Worker implements Runnable {
+        private final long measureStart;
+        private final long measureEnd;
+        private final Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        private final Deque<String> openLoans = new ArrayDeque<>();
+        private final BorrowingService borrowingService = new BorrowingService();
+        private final BookService bookService = new BookService();
+        private final ReportService reportService = new ReportService();
+        
+        Worker(long measureStart, long measureEnd) {
+            this.measureStart = measureStart;
+            this.measureEnd = measureEnd;
+            for (Operation operation : Operation.values()) {
+                recorders.put(operation, new LatencyRecorder());
+            }
+        }
+        
+        @Override
+        public void run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long now;
+            while ((now = System.nanoTime()) < measureEnd) {
+                Operation operation = pickOperation(random);
+                if (operation == Operation.RETURN && openLoans.isEmpty()) {
+                    operation = Operation.BORROW;
+                }
+                
+                boolean measured = now >= measureStart;
+                long start = System.nanoTime();
+                try {
+                    execute(operation, random);
+                    if (measured) {
+                        recorders.get(operation).record(System.nanoTime() - start);
+                    }
+                } catch (Exception e) {
+                    // Refusals such as "no copies left" are part of the workload
+                    if (measured) {
+                        recorders.get(operation).recordError();
+                    }
+                }
+            }
+            
+            while (!openLoans.isEmpty()) {
+                try {
+                    borrowingService.returnBook(openLoans.poll());
+                } catch (Exception e) {
+                    FileLogger.getInstance().log("WARNING", "Load driver could not return loan: " + e.getMessage());
+                }
+            }
+        }
+        
+        private void execute(Operation operation, ThreadLocalRandom random) throws Exception {
+            switch (operation) {
+                case BORROW:
+                    String memberId = DatasetGenerator.memberId(random.nextInt(members));
+                    String isbn = DatasetGenerator.isbn(popularity.sample(random));
+                    BorrowRecord record = borrowingService.borrowBook(memberId, isbn);
+                    openLoans.add(record.getRecordId());
+                    break;
+                case RETURN:
+                    borrowingService.returnBook(openLoans.poll());
+                    break;
+                case SEARCH:
+                    String[] words = DatasetGenerator.TITLE_WORDS;
+                    String term = random.nextInt(4) == 0
+                        ? words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)]
+                        : words[random.nextInt(words.length)];
+                    bookService.searchBooks(term);
+                    break;
+                case REPORT:
+                    if (random.nextBoolean()) {
+                        reportService.generateLibraryStatisticsReport();
+                    } else {
+                        reportService.generateOverdueReport();
+                    }
+                    break;
+            }
+        }
+    }
+    
+    static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid load.mix entry: " + part);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                mix.put(Operation.valueOf(pair[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("load.mix has no operation with a positive weight");
+        }
+        return mix;
+    }
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: LoadDriver db-file [threads] [seconds] [warmup-seconds]");
+            System.exit(1);
+        }
+        File dbFile = new File(args[0]);
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        int warmupSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        Map<Operation, Integer> mix = parseMix(System.getProperty("load.mix", "borrow:30,return:30,search:39,report:1"));
+        
+        if (!dbFile.exists()) {
+            System.err.println("Database not found, create it with DatasetGenerator first: " + dbFile);
+            System.exit(1);
+        }
+        System.setProperty("db.name", dbFile.getAbsolutePath());
+        DatabaseConnection dbConnection = DatabaseConnection.getInstance();
+        
+        int books;
+        int members;
+        try (Connection conn = dbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT (SELECT COUNT(*) FROM books), (SELECT COUNT(*) FROM members)")) {
+            rs.next();
+            books = rs.getInt(1);
+            members = rs.getInt(2);
+        }
+        
+        System.out.println(String.format("Load: %d threads, %d s warmup + %d s, %d books, %d members, mix %s",
+            threads, warmupSeconds, seconds, books, members, mix));
+        LoadDriver driver = new LoadDriver(books, members, mix);
+        Map<Operation, LatencyRecorder> results = driver.run(threads, warmupSeconds * 1_000_000_000L, seconds * 1_000_000_000L);
+        
+        System.out.println(String.format("%-8s %10s %8s %10s %10s %10s %10s",
+            "op", "count", "errors", "ops/s", "p50 ms", "p99 ms", "p99.9 ms"));
+        long totalCount = 0;
+        for (Map.Entry<Operation, LatencyRecorder> entry : results.entrySet()) {
+            LatencyRecorder recorder = entry.getValue();
+            totalCount += recorder.getCount();
+            System.out.println(String.format("%-8s %10d %8d %10.1f %10.2f %10.2f %10.2f",
+                entry.getKey().name().toLowerCase(), recorder.getCount(), recorder.getErrors(),
+                recorder.getCount() / (double) seconds, recorder.percentileMillis(50),
+                recorder.percentileMillis(99), recorder.percentileMillis(99.9)));
+        }
+        System.out.println(String.format("Total throughput: %.1f ops/s", totalCount / (double) seconds));
+        
+        dbConnection.shutdown();
+        FileLogger.getInstance().shutdown();
+    }
+}
@@ -0,0 +1,58 @@
+package com.library.bench;
+
+import com.library.dao.BookDAO;
+import com.library.exception.DatabaseException;
+import com.library.model.Book;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Keyed catalog reads: BookDAO.findByIsbn with and without the book cache.
+ * Lookups are skewed like a real desk: 80% go to the most popular 1% of books.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LookupBenchmark extends DatasetBenchmark {
+    @Param({"true", "false"})
+    public boolean cacheEnabled;
+    
+    private BookDAO bookDAO;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws DatabaseException {
+        openDataset();
+        // CacheManager reads cache.enabled when the first DAO is created
+        System.setProperty("cache.enabled", String.valueOf(cacheEnabled));
+        bookDAO = new BookDAO();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        closeDataset();
+    }
+    
+    @Benchmark
+    public Book findByIsbn() throws DatabaseException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int hotBooks = Math.max(1, rows / 100);
+        int i = random.nextInt(10) < 8 ? random.nextInt(hotBooks) : random.nextInt(rows);
+        return bookDAO.findByIsbn(BenchmarkDataset.isbn(i));
+    }
+}
@@ -0,0 +1,55 @@
+package com.library.bench;
+
+import com.library.exception.DatabaseException;
+import com.library.service.ReportService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Whole-library report generation, which scales with every table in the dataset.
+ * With reportCache=false every call builds the report; with true, nothing writes during
+ * the run, so calls after the first replay the cached copy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class ReportBenchmark extends DatasetBenchmark {
+    @Param({"false", "true"})
+    public boolean reportCache;
+    
+    private ReportService reportService;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws DatabaseException {
+        // CacheManager reads the TTL when the first DAO is created, possibly by the dataset generator
+        System.setProperty("report.cache.ttl.seconds", reportCache ? "300" : "0");
+        openDataset();
+        reportService = new ReportService();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        closeDataset();
+    }
+    
+    @Benchmark
+    public List<String> generateLibraryStatisticsReport() {
+        return reportService.generateLibraryStatisticsReport();
+    }
+}
@@ -0,0 +1,58 @@
+package com.library.bench;
+
+import com.library.dao.BookDAO;
+import com.library.exception.DatabaseException;
+import com.library.model.Book;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Full-text catalog search through BookDAO.searchBooks, unbounded and limited to one page
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SearchBenchmark extends DatasetBenchmark {
+    // Common word, two words, and a prefix
+    @Param({"history", "ocean garden", "sci"})
+    public String searchTerm;
+    
+    private BookDAO bookDAO;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws DatabaseException {
+        openDataset();
+        bookDAO = new BookDAO();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        closeDataset();
+    }
+    
+    @Benchmark
+    public List<Book> searchBooks() throws DatabaseException {
+        return bookDAO.searchBooks(searchTerm);
+    }
+    
+    @Benchmark
+    public List<Book> searchBooksFirstPage() throws DatabaseException {
+        return bookDAO.searchBooks(searchTerm, 50);
+    }
+}
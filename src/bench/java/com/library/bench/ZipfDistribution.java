@@ -0,0 +1,35 @@
+package com.library.bench;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Zipf distribution over ranks 0..n-1; rank 0 is the most popular.
+ * Sampling is a binary search over a precomputed cumulative table.
+ */
+public class ZipfDistribution {
+    private final double[] cumulative;
+    
+    /**
+     * @param exponent skew; 0 is uniform, around 1 matches typical circulation data
+     */
+    public ZipfDistribution(int n, double exponent) {
+        cumulative = new double[n];
+        double total = 0;
+        for (int rank = 0; rank < n; rank++) {
+            total += 1.0 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = total;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cumulative[rank] /= total;
+        }
+    }
+    
+    public int sample(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return Math.min(index, cumulative.length - 1);
+    }
+}
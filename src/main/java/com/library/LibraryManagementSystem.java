@@ -1,6 +1,11 @@
 package com.library;
 
+import com.library.service.BorrowHistoryStore;
+import com.library.service.OverdueService;
+import com.library.service.StatisticsService;
 import com.library.ui.MainMenu;
+import com.library.util.AsyncExecutor;
+import com.library.util.CacheManager;
 import com.library.util.DatabaseConnection;
 import com.library.util.FileLogger;
 import com.library.exception.DatabaseException;
@@ -16,6 +21,9 @@ public class LibraryManagementSystem {
             
             DatabaseConnection.getInstance().initializeDatabase();
             logger.log("INFO", "Database initialized successfully");
+            StatisticsService.getInstance().startReconciliation();
+            OverdueService.getInstance().start();
+            BorrowHistoryStore.getInstance().startLoading();
             
             MainMenu mainMenu = new MainMenu();
             mainMenu.displayMenu();
@@ -28,6 +36,12 @@ public class LibraryManagementSystem {
             System.err.println("Unexpected error occurred: " + e.getMessage());
         } finally {
             logger.log("INFO", "Library Management System shutting down...");
+            logger.log("INFO", "Cache statistics: " + CacheManager.getInstance());
+            AsyncExecutor.getInstance().shutdown();
+            OverdueService.getInstance().shutdown();
+            StatisticsService.getInstance().shutdown();
+            DatabaseConnection.getInstance().shutdown();
+            logger.shutdown();
         }
     }
 }
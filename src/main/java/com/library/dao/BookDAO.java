@@ -1,22 +1,37 @@
 package com.library.dao;
 
 import com.library.model.Book;
+import com.library.util.CacheManager;
 import com.library.util.DatabaseConnection;
+import com.library.util.LruCache;
 import com.library.exception.DatabaseException;
 import java.sql.*;
+import java.text.Normalizer;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 /**
  * Data Access Object for Book entities
  * Implements CRUD operations using JDBC
  */
 public class BookDAO {
+    private static final Pattern SEARCH_PART = Pattern.compile("\"([^\"]*)\"|([^\\s\"]+)");
+    private static final Pattern NON_TOKEN_CHARS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    
     private final DatabaseConnection dbConnection;
+    private final CacheManager cacheManager;
+    private final LruCache<String, Book> bookCache;
     
     public BookDAO() {
         this.dbConnection = DatabaseConnection.getInstance();
+        this.cacheManager = CacheManager.getInstance();
+        this.bookCache = cacheManager.getBookCache();
     }
     
     public void createBook(Book book) throws DatabaseException {
@@ -36,12 +51,30 @@ public class BookDAO {
             stmt.setBoolean(9, book.isActive());
             
             stmt.executeUpdate();
+            cacheManager.invalidateReports();
         } catch (SQLException e) {
             throw new DatabaseException("Failed to create book: " + e.getMessage(), e);
         }
     }
     
+    /**
+     * Read-through lookup; callers get their own copy, so mutating it never touches the cache
+     */
     public Book findByIsbn(String isbn) throws DatabaseException {
+        Book cached = bookCache.get(isbn);
+        if (cached != null) {
+            return new Book(cached);
+        }
+        
+        long stamp = bookCache.getStamp();
+        Book book = loadBook(isbn);
+        if (book != null && cacheManager.canPopulate()) {
+            bookCache.putIfUnchanged(isbn, new Book(book), stamp);
+        }
+        return book;
+    }
+    
+    private Book loadBook(String isbn) throws DatabaseException {
         String sql = "SELECT * FROM books WHERE isbn = ?";
         
         try (Connection conn = dbConnection.getConnection();
@@ -77,10 +110,114 @@ public class BookDAO {
         return books;
     }
     
+    /**
+     * Keyset-paginated listing of active books ordered by (title, isbn).
+     * @param after last book of the previous page, or null for the first page
+     */
+    public Page<Book> findPage(Book after, int pageSize) throws DatabaseException {
+        String sql = after == null
+            ? "SELECT * FROM books WHERE is_active = true ORDER BY title, isbn LIMIT ?"
+            : "SELECT * FROM books WHERE is_active = true AND (title, isbn) > (?, ?) ORDER BY title, isbn LIMIT ?";
+        List<Book> books = new ArrayList<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            int index = 1;
+            if (after != null) {
+                stmt.setString(index++, after.getTitle());
+                stmt.setString(index++, after.getIsbn());
+            }
+            stmt.setInt(index, pageSize + 1);
+            
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                books.add(mapResultSetToBook(rs));
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to retrieve page of books: " + e.getMessage(), e);
+        }
+        
+        return Page.fromOverfetch(books, pageSize);
+    }
+    
+    /**
+     * Index for findPage: the active book count and the (title, isbn) key ending each full page.
+     * Call inside a transaction so both queries see the same snapshot.
+     */
+    public PageIndex<Book> findPageIndex(int pageSize) throws DatabaseException {
+        String countSql = "SELECT COUNT(*) FROM books WHERE is_active = true";
+        String cursorSql = "SELECT title, isbn FROM (" +
+                           "SELECT title, isbn, ROW_NUMBER() OVER (ORDER BY title, isbn) AS position " +
+                           "FROM books WHERE is_active = true) WHERE position % ? = 0 ORDER BY position";
+        List<Book> cursors = new ArrayList<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement countStmt = conn.prepareStatement(countSql);
+             PreparedStatement cursorStmt = conn.prepareStatement(cursorSql)) {
+            
+            ResultSet countRs = countStmt.executeQuery();
+            long totalRows = countRs.next() ? countRs.getLong(1) : 0;
+            
+            cursorStmt.setInt(1, pageSize);
+            ResultSet rs = cursorStmt.executeQuery();
+            while (rs.next()) {
+                Book cursor = new Book();
+                cursor.setTitle(rs.getString("title"));
+                cursor.setIsbn(rs.getString("isbn"));
+                cursors.add(cursor);
+            }
+            return new PageIndex<>(totalRows, pageSize, cursors);
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to index pages of books: " + e.getMessage(), e);
+        }
+    }
+    
     public List<Book> searchBooks(String searchTerm) throws DatabaseException {
-        String sql = "SELECT * FROM books WHERE is_active = true AND (title LIKE ? OR author LIKE ? OR category LIKE ? OR isbn LIKE ?) ORDER BY title";
+        return searchBooks(searchTerm, -1);
+    }
+    
+    /**
+     * Ranked full-text search over title, author, category and ISBN.
+     * Each word matches as a prefix; text in double quotes matches as a phrase.
+     * @param limit maximum number of results, or a negative value for all matches
+     */
+    public List<Book> searchBooks(String searchTerm, int limit) throws DatabaseException {
+        String ftsQuery = toFtsQuery(searchTerm);
+        if (ftsQuery.isEmpty()) {
+            return searchBooksByPattern(searchTerm, limit);
+        }
+        
+        // Title hits rank above author, category and ISBN hits
+        String sql = "SELECT b.* FROM books_fts JOIN books b ON b.rowid = books_fts.rowid " +
+                     "WHERE books_fts MATCH ? AND b.is_active = true " +
+                     "ORDER BY bm25(books_fts, 10.0, 5.0, 2.0, 1.0), b.title LIMIT ?";
+        List<Book> books = new ArrayList<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setString(1, ftsQuery);
+            stmt.setInt(2, limit);
+            
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                books.add(mapResultSetToBook(rs));
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to search books: " + e.getMessage(), e);
+        }
+        
+        return books;
+    }
+    
+    // Fallback for terms with no indexable characters, e.g. punctuation only
+    private List<Book> searchBooksByPattern(String searchTerm, int limit) throws DatabaseException {
+        String like = " LIKE ?" + LikePatterns.ESCAPE;
+        String sql = "SELECT * FROM books WHERE is_active = true AND (title" + like + " OR author" + like +
+                     " OR category" + like + " OR isbn" + like + ") ORDER BY title LIMIT ?";
         List<Book> books = new ArrayList<>();
-        String searchPattern = "%" + searchTerm + "%";
+        String searchPattern = LikePatterns.contains(searchTerm);
         
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -89,6 +226,7 @@ public class BookDAO {
             stmt.setString(2, searchPattern);
             stmt.setString(3, searchPattern);
             stmt.setString(4, searchPattern);
+            stmt.setInt(5, limit);
             
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
@@ -101,6 +239,97 @@ public class BookDAO {
         return books;
     }
     
+    /**
+     * Translates user input into an FTS5 query.
+     * Words become prefix queries ("dun" finds "Dune"), quoted text becomes a phrase,
+     * and all parts must match. Only letters and digits reach the query, so user
+     * input can never inject FTS5 operators.
+     */
+    static String toFtsQuery(String searchTerm) {
+        StringBuilder query = new StringBuilder();
+        Matcher matcher = SEARCH_PART.matcher(searchTerm == null ? "" : searchTerm);
+        
+        while (matcher.find()) {
+            boolean phrase = matcher.group(1) != null;
+            String text = phrase ? matcher.group(1) : matcher.group(2);
+            String tokens = String.join(" ", NON_TOKEN_CHARS.split(text.trim()));
+            if (tokens.isBlank()) {
+                continue;
+            }
+            
+            if (query.length() > 0) {
+                query.append(' ');
+            }
+            query.append('"').append(tokens.trim()).append('"');
+            if (!phrase) {
+                query.append('*');
+            }
+        }
+        
+        return query.toString();
+    }
+    
+    /**
+     * In-memory equivalent of searchBooks, for narrowing results already fetched.
+     * Mirrors the FTS5 defaults: case and diacritics are ignored, words match as
+     * token prefixes and a phrase must appear within a single column.
+     */
+    public static boolean matchesSearch(Book book, String searchTerm) {
+        List<List<String>> columns = List.of(
+            tokenize(book.getTitle()), tokenize(book.getAuthor()), tokenize(book.getCategory()), tokenize(book.getIsbn()));
+        Matcher matcher = SEARCH_PART.matcher(searchTerm == null ? "" : searchTerm);
+        boolean indexable = false;
+        
+        while (matcher.find()) {
+            boolean phrase = matcher.group(1) != null;
+            List<String> tokens = tokenize(phrase ? matcher.group(1) : matcher.group(2));
+            if (tokens.isEmpty()) {
+                continue;
+            }
+            indexable = true;
+            if (columns.stream().noneMatch(column -> containsPhrase(column, tokens, !phrase))) {
+                return false;
+            }
+        }
+        
+        if (!indexable) {
+            // Same substring test as searchBooksByPattern
+            String term = searchTerm == null ? "" : searchTerm.toLowerCase(Locale.ROOT);
+            return Stream.of(book.getTitle(), book.getAuthor(), book.getCategory(), book.getIsbn())
+                .anyMatch(value -> value != null && value.toLowerCase(Locale.ROOT).contains(term));
+        }
+        return true;
+    }
+    
+    private static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_TOKEN_CHARS.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+    
+    private static boolean containsPhrase(List<String> column, List<String> phrase, boolean lastIsPrefix) {
+        for (int start = 0; start + phrase.size() <= column.size(); start++) {
+            boolean matched = true;
+            for (int i = 0; i < phrase.size() && matched; i++) {
+                String token = column.get(start + i);
+                boolean prefix = lastIsPrefix && i == phrase.size() - 1;
+                matched = prefix ? token.startsWith(phrase.get(i)) : token.equals(phrase.get(i));
+            }
+            if (matched) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
     public void updateBook(Book book) throws DatabaseException {
         String sql = "UPDATE books SET title = ?, author = ?, category = ?, publisher = ?, publication_date = ?, total_copies = ?, available_copies = ?, is_active = ? WHERE isbn = ?";
         
@@ -123,6 +352,94 @@ public class BookDAO {
             }
         } catch (SQLException e) {
             throw new DatabaseException("Failed to update book: " + e.getMessage(), e);
+        } finally {
+            cacheManager.invalidate(bookCache, book.getIsbn());
+            cacheManager.invalidateReports();
+        }
+    }
+    
+    /**
+     * Inserts or updates a batch of books with one executeBatch.
+     * An existing ISBN takes the new details and is reactivated; its available copies
+     * move by the change in total copies, so books out on loan stay accounted for.
+     * Run it inside a transaction so many batches share one commit.
+     */
+    public void upsertBooks(List<Book> books) throws DatabaseException {
+        String sql = """
+            INSERT INTO books (isbn, title, author, category, publisher, publication_date, total_copies, available_copies, is_active)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT(isbn) DO UPDATE SET
+                title = excluded.title,
+                author = excluded.author,
+                category = excluded.category,
+                publisher = excluded.publisher,
+                publication_date = excluded.publication_date,
+                available_copies = MAX(0, books.available_copies + excluded.total_copies - books.total_copies),
+                total_copies = excluded.total_copies,
+                is_active = true
+            """;
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            for (Book book : books) {
+                stmt.setString(1, book.getIsbn());
+                stmt.setString(2, book.getTitle());
+                stmt.setString(3, book.getAuthor());
+                stmt.setString(4, book.getCategory());
+                stmt.setString(5, book.getPublisher());
+                stmt.setDate(6, Date.valueOf(book.getPublicationDate()));
+                stmt.setInt(7, book.getTotalCopies());
+                stmt.setInt(8, book.getAvailableCopies());
+                stmt.setBoolean(9, true);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to import books: " + e.getMessage(), e);
+        } finally {
+            cacheManager.invalidateAll(bookCache);
+            cacheManager.invalidateReports();
+        }
+    }
+    
+    /**
+     * Takes one copy of an active book in a single guarded statement.
+     * @return false if the book is missing, inactive or has no copies left
+     */
+    public boolean decrementAvailableCopies(String isbn) throws DatabaseException {
+        String sql = "UPDATE books SET available_copies = available_copies - 1 WHERE isbn = ? AND is_active = true AND available_copies > 0";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setString(1, isbn);
+            return stmt.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to decrement available copies: " + e.getMessage(), e);
+        } finally {
+            cacheManager.invalidate(bookCache, isbn);
+            cacheManager.invalidateReports();
+        }
+    }
+    
+    /**
+     * Puts one copy back, never exceeding the total number of copies.
+     * @return false if the book is missing or all copies are already on the shelf
+     */
+    public boolean incrementAvailableCopies(String isbn) throws DatabaseException {
+        String sql = "UPDATE books SET available_copies = available_copies + 1 WHERE isbn = ? AND available_copies < total_copies";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setString(1, isbn);
+            return stmt.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to increment available copies: " + e.getMessage(), e);
+        } finally {
+            cacheManager.invalidate(bookCache, isbn);
+            cacheManager.invalidateReports();
         }
     }
     
@@ -139,6 +456,9 @@ public class BookDAO {
             }
         } catch (SQLException e) {
             throw new DatabaseException("Failed to delete book: " + e.getMessage(), e);
+        } finally {
+            cacheManager.invalidate(bookCache, isbn);
+            cacheManager.invalidateReports();
         }
     }
     
@@ -160,6 +480,28 @@ public class BookDAO {
         return books;
     }
     
+    /**
+     * Categories of active books, read from the trigger-maintained book_category_counts
+     * instead of loading every book
+     */
+    public List<String> findCategories() throws DatabaseException {
+        String sql = "SELECT category FROM book_category_counts ORDER BY category";
+        List<String> categories = new ArrayList<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            while (rs.next()) {
+                categories.add(rs.getString("category"));
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to retrieve categories: " + e.getMessage(), e);
+        }
+        
+        return categories;
+    }
+    
     private Book mapResultSetToBook(ResultSet rs) throws SQLException {
         Book book = new Book();
         book.setIsbn(rs.getString("isbn"));
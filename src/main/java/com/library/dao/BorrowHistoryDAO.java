@@ -0,0 +1,122 @@
+package com.library.dao;
+
+import com.library.model.BorrowStatus;
+import com.library.util.DatabaseConnection;
+import com.library.exception.DatabaseException;
+import java.sql.*;
+
+/**
+ * Data Access Object feeding BorrowHistoryStore.
+ * Rows are read by rowid so the store can ask for only those added since its last read,
+ * and status changes come from the trigger-filled borrow_status_log.
+ */
+public class BorrowHistoryDAO {
+    private static final int STREAM_FETCH_SIZE = 5000;
+    
+    private final DatabaseConnection dbConnection;
+    
+    /**
+     * Receives one borrow record as primitive columns, so a full load allocates no row objects
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+        void handle(long rowId, String memberId, String isbn, int borrowEpochDay, int dueEpochDay, BorrowStatus status);
+    }
+    
+    @FunctionalInterface
+    public interface StatusChangeHandler {
+        void handle(long rowId, BorrowStatus status);
+    }
+    
+    public BorrowHistoryDAO() {
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+    
+    /**
+     * Streams the records with a rowid above afterRowId, in rowid order, from a forward-only cursor
+     */
+    public void forEachRecordAfter(long afterRowId, RecordHandler handler) throws DatabaseException {
+        String sql = "SELECT rowid, member_id, isbn, borrow_date, due_date, status FROM borrow_records " +
+                     "WHERE rowid > ? ORDER BY rowid";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            stmt.setFetchSize(STREAM_FETCH_SIZE);
+            stmt.setLong(1, afterRowId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.handle(
+                        rs.getLong(1),
+                        rs.getString(2),
+                        rs.getString(3),
+                        (int) rs.getDate(4).toLocalDate().toEpochDay(),
+                        (int) rs.getDate(5).toLocalDate().toEpochDay(),
+                        BorrowStatus.valueOf(rs.getString(6)));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to read borrow history: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Streams the current status of every record changed after log entry afterSeq, oldest change first
+     */
+    public void forEachStatusChangeAfter(long afterSeq, StatusChangeHandler handler) throws DatabaseException {
+        String sql = "SELECT l.record_rowid, r.status FROM borrow_status_log l " +
+                     "JOIN borrow_records r ON r.rowid = l.record_rowid " +
+                     "WHERE l.seq > ? ORDER BY l.seq";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setLong(1, afterSeq);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                handler.handle(rs.getLong(1), BorrowStatus.valueOf(rs.getString(2)));
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to read borrow status changes: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * @return the oldest log entry still kept, or 0 if the log is empty
+     */
+    public long findFirstStatusChange() throws DatabaseException {
+        return queryForLong("SELECT COALESCE(MIN(seq), 0) FROM borrow_status_log");
+    }
+    
+    /**
+     * @return the newest log entry ever written, or 0 if there has been none
+     */
+    public long findLastStatusChange() throws DatabaseException {
+        return queryForLong("SELECT COALESCE((SELECT seq FROM sqlite_sequence WHERE name = 'borrow_status_log'), 0)");
+    }
+    
+    /**
+     * Deletes log entries up to and including throughSeq
+     */
+    public void pruneStatusChanges(long throughSeq) throws DatabaseException {
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("DELETE FROM borrow_status_log WHERE seq <= ?")) {
+            
+            stmt.setLong(1, throughSeq);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to prune borrow status changes: " + e.getMessage(), e);
+        }
+    }
+    
+    private long queryForLong(String sql) throws DatabaseException {
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            return rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to read borrow status log: " + e.getMessage(), e);
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package com.library.dao;
 
 import com.library.model.BorrowRecord;
+import com.library.model.BorrowStatus;
+import com.library.model.CompactBorrowRecord;
+import com.library.util.CacheManager;
 import com.library.util.DatabaseConnection;
 import com.library.exception.DatabaseException;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -13,9 +17,11 @@ import java.util.List;
  */
 public class BorrowRecordDAO {
     private final DatabaseConnection dbConnection;
+    private final CacheManager cacheManager;
     
     public BorrowRecordDAO() {
         this.dbConnection = DatabaseConnection.getInstance();
+        this.cacheManager = CacheManager.getInstance();
     }
     
     public void createBorrowRecord(BorrowRecord record) throws DatabaseException {
@@ -34,6 +40,7 @@ public class BorrowRecordDAO {
             stmt.setDouble(8, record.getFineAmount());
             
             stmt.executeUpdate();
+            cacheManager.invalidateReports();
         } catch (SQLException e) {
             throw new DatabaseException("Failed to create borrow record: " + e.getMessage(), e);
         }
@@ -78,7 +85,7 @@ public class BorrowRecordDAO {
     }
     
     public List<BorrowRecord> findActiveByMemberId(String memberId) throws DatabaseException {
-        String sql = "SELECT * FROM borrow_records WHERE member_id = ? AND status = 'BORROWED' ORDER BY due_date";
+        String sql = "SELECT * FROM borrow_records WHERE member_id = ? AND status IN ('BORROWED', 'OVERDUE') ORDER BY due_date";
         List<BorrowRecord> records = new ArrayList<>();
         
         try (Connection conn = dbConnection.getConnection();
@@ -97,14 +104,16 @@ public class BorrowRecordDAO {
         return records;
     }
     
+    /**
+     * Loans OverdueService has flagged, oldest due date first; a range of the status index
+     */
     public List<BorrowRecord> findOverdueRecords() throws DatabaseException {
-        String sql = "SELECT * FROM borrow_records WHERE status = 'BORROWED' AND due_date < ? ORDER BY due_date";
+        String sql = "SELECT * FROM borrow_records WHERE status = 'OVERDUE' ORDER BY due_date";
         List<BorrowRecord> records = new ArrayList<>();
         
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setDate(1, Date.valueOf(LocalDate.now()));
             ResultSet rs = stmt.executeQuery();
             
             while (rs.next()) {
@@ -134,6 +143,143 @@ public class BorrowRecordDAO {
             }
         } catch (SQLException e) {
             throw new DatabaseException("Failed to update borrow record: " + e.getMessage(), e);
+        } finally {
+            cacheManager.invalidateReports();
+        }
+    }
+    
+    /**
+     * Closes an open loan; only succeeds if the record is still BORROWED or OVERDUE.
+     * @return false if the record is missing or has already been returned
+     */
+    public boolean markReturned(BorrowRecord record) throws DatabaseException {
+        String sql = "UPDATE borrow_records SET return_date = ?, status = ?, fine_amount = ? WHERE record_id = ? AND status IN ('BORROWED', 'OVERDUE')";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setDate(1, Date.valueOf(record.getReturnDate()));
+            stmt.setString(2, record.getStatus());
+            stmt.setDouble(3, record.getFineAmount());
+            stmt.setString(4, record.getRecordId());
+            return stmt.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to mark borrow record returned: " + e.getMessage(), e);
+        } finally {
+            cacheManager.invalidateReports();
+        }
+    }
+    
+    /**
+     * Streams the record ID and due date of every loan still BORROWED, from the status index.
+     * @param dueBefore only loans due before this date, or null for all of them
+     */
+    public <E extends Exception> void forEachBorrowedLoan(LocalDate dueBefore, RowHandler<BorrowRecord, E> handler) throws DatabaseException, E {
+        String sql = dueBefore == null
+            ? "SELECT record_id, due_date FROM borrow_records WHERE status = 'BORROWED'"
+            : "SELECT record_id, due_date FROM borrow_records WHERE status = 'BORROWED' AND due_date < ?";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            if (dueBefore != null) {
+                stmt.setDate(1, Date.valueOf(dueBefore));
+            }
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                BorrowRecord loan = new BorrowRecord();
+                loan.setRecordId(rs.getString("record_id"));
+                loan.setDueDate(rs.getDate("due_date").toLocalDate());
+                handler.handle(loan);
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to read borrowed loans: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Flags loans OVERDUE in one batch, setting the fine they have accrued so far.
+     * Loans returned or flagged in the meantime are left alone.
+     * @return the number of loans flagged
+     */
+    public int markOverdue(Collection<String> recordIds, double fineAmount) throws DatabaseException {
+        String sql = "UPDATE borrow_records SET status = 'OVERDUE', fine_amount = ? WHERE record_id = ? AND status = 'BORROWED'";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            for (String recordId : recordIds) {
+                stmt.setDouble(1, fineAmount);
+                stmt.setString(2, recordId);
+                stmt.addBatch();
+            }
+            int flagged = 0;
+            for (int count : stmt.executeBatch()) {
+                flagged += Math.max(count, 0);
+            }
+            return flagged;
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to mark borrow records overdue: " + e.getMessage(), e);
+        } finally {
+            cacheManager.invalidateReports();
+        }
+    }
+    
+    /**
+     * Adds the same amount to the fine of every OVERDUE loan
+     * @return the number of loans charged
+     */
+    public int accrueFines(double amount) throws DatabaseException {
+        String sql = "UPDATE borrow_records SET fine_amount = fine_amount + ? WHERE status = 'OVERDUE'";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setDouble(1, amount);
+            return stmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to accrue fines: " + e.getMessage(), e);
+        } finally {
+            cacheManager.invalidateReports();
+        }
+    }
+    
+    /**
+     * Last day whose fines have been added to the OVERDUE loans, or null before the first accrual
+     */
+    public LocalDate findFinesAccruedThrough() throws DatabaseException {
+        String sql = "SELECT fines_accrued_through FROM overdue_state WHERE id = 1";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            if (!rs.next()) {
+                throw new DatabaseException("Overdue state row is missing");
+            }
+            Date accruedThrough = rs.getDate("fines_accrued_through");
+            return accruedThrough != null ? accruedThrough.toLocalDate() : null;
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to read fine accrual date: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Moves the fine accrual date forward, unless another process already moved it.
+     * @param expected the date read before, null if there has been no accrual yet
+     * @return false if the stored date was no longer expected
+     */
+    public boolean advanceFinesAccruedThrough(LocalDate expected, LocalDate accruedThrough) throws DatabaseException {
+        String sql = "UPDATE overdue_state SET fines_accrued_through = ? WHERE id = 1 AND fines_accrued_through IS ?";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setDate(1, Date.valueOf(accruedThrough));
+            stmt.setDate(2, expected != null ? Date.valueOf(expected) : null);
+            return stmt.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to advance fine accrual date: " + e.getMessage(), e);
         }
     }
     
@@ -155,7 +301,71 @@ public class BorrowRecordDAO {
         return records;
     }
     
-    private BorrowRecord mapResultSetToBorrowRecord(ResultSet rs) throws SQLException {
+    /**
+     * Keyset-paginated borrow history, newest first, ordered by (borrow_date, record_id) descending.
+     * @param after last record of the previous page, or null for the first page
+     */
+    public Page<BorrowRecord> findPage(BorrowRecord after, int pageSize) throws DatabaseException {
+        String sql = after == null
+            ? "SELECT * FROM borrow_records ORDER BY borrow_date DESC, record_id DESC LIMIT ?"
+            : "SELECT * FROM borrow_records WHERE (borrow_date, record_id) < (?, ?) ORDER BY borrow_date DESC, record_id DESC LIMIT ?";
+        List<BorrowRecord> records = new ArrayList<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            int index = 1;
+            if (after != null) {
+                stmt.setDate(index++, Date.valueOf(after.getBorrowDate()));
+                stmt.setString(index++, after.getRecordId());
+            }
+            stmt.setInt(index, pageSize + 1);
+            
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                records.add(mapResultSetToBorrowRecord(rs));
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to retrieve page of borrow records: " + e.getMessage(), e);
+        }
+        
+        return Page.fromOverfetch(records, pageSize);
+    }
+    
+    /**
+     * Index for findPage: the record count and the (borrow_date, record_id) key ending each full page.
+     * The cursors come from a scan of the borrow date index; call inside a transaction so
+     * both queries see the same snapshot.
+     */
+    public PageIndex<BorrowRecord> findPageIndex(int pageSize) throws DatabaseException {
+        String countSql = "SELECT COUNT(*) FROM borrow_records";
+        String cursorSql = "SELECT borrow_date, record_id FROM (" +
+                           "SELECT borrow_date, record_id, ROW_NUMBER() OVER (ORDER BY borrow_date DESC, record_id DESC) AS position " +
+                           "FROM borrow_records) WHERE position % ? = 0 ORDER BY position";
+        List<BorrowRecord> cursors = new ArrayList<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement countStmt = conn.prepareStatement(countSql);
+             PreparedStatement cursorStmt = conn.prepareStatement(cursorSql)) {
+            
+            ResultSet countRs = countStmt.executeQuery();
+            long totalRows = countRs.next() ? countRs.getLong(1) : 0;
+            
+            cursorStmt.setInt(1, pageSize);
+            ResultSet rs = cursorStmt.executeQuery();
+            while (rs.next()) {
+                BorrowRecord cursor = new BorrowRecord();
+                cursor.setBorrowDate(rs.getDate("borrow_date").toLocalDate());
+                cursor.setRecordId(rs.getString("record_id"));
+                cursors.add(cursor);
+            }
+            return new PageIndex<>(totalRows, pageSize, cursors);
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to index pages of borrow records: " + e.getMessage(), e);
+        }
+    }
+    
+    static BorrowRecord mapResultSetToBorrowRecord(ResultSet rs) throws SQLException {
         BorrowRecord record = new BorrowRecord();
         record.setRecordId(rs.getString("record_id"));
         record.setMemberId(rs.getString("member_id"));
@@ -172,4 +382,20 @@ public class BorrowRecordDAO {
         record.setFineAmount(rs.getDouble("fine_amount"));
         return record;
     }
+    
+    /**
+     * Maps a row straight to the compact form, without building a BorrowRecord
+     */
+    static CompactBorrowRecord mapResultSetToCompactRecord(ResultSet rs) throws SQLException {
+        Date returnDate = rs.getDate("return_date");
+        return new CompactBorrowRecord(
+            rs.getString("record_id"),
+            rs.getString("member_id"),
+            rs.getString("isbn"),
+            (int) rs.getDate("borrow_date").toLocalDate().toEpochDay(),
+            (int) rs.getDate("due_date").toLocalDate().toEpochDay(),
+            returnDate != null ? (int) returnDate.toLocalDate().toEpochDay() : CompactBorrowRecord.NOT_RETURNED,
+            BorrowStatus.valueOf(rs.getString("status")),
+            CompactBorrowRecord.toFineCents(rs.getDouble("fine_amount")));
+    }
 }
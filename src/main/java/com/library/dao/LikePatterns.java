@@ -0,0 +1,25 @@
+package com.library.dao;
+
+/**
+ * LIKE patterns built from user input, with % and _ matched literally.
+ * Queries using them must say ESCAPE '\', so SQL and the in-memory matchesSearch
+ * methods agree on what a term matches.
+ */
+final class LikePatterns {
+    static final String ESCAPE = " ESCAPE '\\'";
+    
+    private LikePatterns() {
+    }
+    
+    static String contains(String term) {
+        return "%" + escape(term) + "%";
+    }
+    
+    static String startsWith(String term) {
+        return escape(term) + "%";
+    }
+    
+    private static String escape(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -1,21 +1,28 @@
 package com.library.dao;
 
 import com.library.model.Member;
+import com.library.util.CacheManager;
 import com.library.util.DatabaseConnection;
+import com.library.util.LruCache;
 import com.library.exception.DatabaseException;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Data Access Object for Member entities
  */
 public class MemberDAO {
     private final DatabaseConnection dbConnection;
+    private final CacheManager cacheManager;
+    private final LruCache<String, Member> memberCache;
     
     public MemberDAO() {
         this.dbConnection = DatabaseConnection.getInstance();
+        this.cacheManager = CacheManager.getInstance();
+        this.memberCache = cacheManager.getMemberCache();
     }
     
     public void createMember(Member member) throws DatabaseException {
@@ -36,12 +43,30 @@ public class MemberDAO {
             stmt.setDate(10, Date.valueOf(member.getRegistrationDate()));
             
             stmt.executeUpdate();
+            cacheManager.invalidateReports();
         } catch (SQLException e) {
             throw new DatabaseException("Failed to create member: " + e.getMessage(), e);
         }
     }
     
+    /**
+     * Read-through lookup; callers get their own copy, so mutating it never touches the cache
+     */
     public Member findById(String id) throws DatabaseException {
+        Member cached = memberCache.get(id);
+        if (cached != null) {
+            return new Member(cached);
+        }
+        
+        long stamp = memberCache.getStamp();
+        Member member = loadMember(id);
+        if (member != null && cacheManager.canPopulate()) {
+            memberCache.putIfUnchanged(id, new Member(member), stamp);
+        }
+        return member;
+    }
+    
+    private Member loadMember(String id) throws DatabaseException {
         String sql = "SELECT * FROM members WHERE id = ?";
         
         try (Connection conn = dbConnection.getConnection();
@@ -77,10 +102,77 @@ public class MemberDAO {
         return members;
     }
     
+    /**
+     * Keyset-paginated listing of active members ordered by (last_name, first_name, id).
+     * @param after last member of the previous page, or null for the first page
+     */
+    public Page<Member> findPage(Member after, int pageSize) throws DatabaseException {
+        return searchPage(null, after, pageSize);
+    }
+    
+    /**
+     * Keyset-paginated member search; a null search term lists all active members.
+     * @param after last member of the previous page, or null for the first page
+     */
+    public Page<Member> searchPage(String searchTerm, Member after, int pageSize) throws DatabaseException {
+        StringBuilder sql = new StringBuilder("SELECT * FROM members WHERE is_active = true");
+        if (searchTerm != null) {
+            sql.append(" AND (first_name LIKE ?" + LikePatterns.ESCAPE + " OR last_name LIKE ?" + LikePatterns.ESCAPE +
+                       " OR email LIKE ?" + LikePatterns.ESCAPE + " OR id LIKE ?" + LikePatterns.ESCAPE + ")");
+        }
+        if (after != null) {
+            sql.append(" AND (last_name, first_name, id) > (?, ?, ?)");
+        }
+        sql.append(" ORDER BY last_name, first_name, id LIMIT ?");
+        List<Member> members = new ArrayList<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            
+            int index = 1;
+            if (searchTerm != null) {
+                String searchPattern = LikePatterns.contains(searchTerm);
+                stmt.setString(index++, searchPattern);
+                stmt.setString(index++, searchPattern);
+                stmt.setString(index++, searchPattern);
+                stmt.setString(index++, searchPattern);
+            }
+            if (after != null) {
+                stmt.setString(index++, after.getLastName());
+                stmt.setString(index++, after.getFirstName());
+                stmt.setString(index++, after.getId());
+            }
+            stmt.setInt(index, pageSize + 1);
+            
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                members.add(mapResultSetToMember(rs));
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to retrieve page of members: " + e.getMessage(), e);
+        }
+        
+        return Page.fromOverfetch(members, pageSize);
+    }
+    
     public List<Member> searchMembers(String searchTerm) throws DatabaseException {
-        String sql = "SELECT * FROM members WHERE is_active = true AND (first_name LIKE ? OR last_name LIKE ? OR email LIKE ? OR id LIKE ?) ORDER BY last_name, first_name";
+        return searchMembers(searchTerm, -1);
+    }
+    
+    /**
+     * Substring search over name, email and ID; % and _ in the term match literally.
+     * An exact ID ranks first, then names starting with the term, then other matches.
+     * @param limit maximum number of results, or a negative value for all matches
+     */
+    public List<Member> searchMembers(String searchTerm, int limit) throws DatabaseException {
+        String like = " LIKE ?" + LikePatterns.ESCAPE;
+        String sql = "SELECT * FROM members WHERE is_active = true AND (first_name" + like + " OR last_name" + like +
+                     " OR email" + like + " OR id" + like + ") " +
+                     "ORDER BY CASE WHEN id = ? THEN 0 WHEN last_name" + like + " OR first_name" + like + " THEN 1 ELSE 2 END, " +
+                     "last_name, first_name LIMIT ?";
         List<Member> members = new ArrayList<>();
-        String searchPattern = "%" + searchTerm + "%";
+        String searchPattern = LikePatterns.contains(searchTerm);
+        String prefixPattern = LikePatterns.startsWith(searchTerm);
         
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -89,6 +181,10 @@ public class MemberDAO {
             stmt.setString(2, searchPattern);
             stmt.setString(3, searchPattern);
             stmt.setString(4, searchPattern);
+            stmt.setString(5, searchTerm);
+            stmt.setString(6, prefixPattern);
+            stmt.setString(7, prefixPattern);
+            stmt.setInt(8, limit);
             
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
@@ -101,6 +197,21 @@ public class MemberDAO {
         return members;
     }
     
+    /**
+     * In-memory equivalent of searchMembers, for narrowing results already fetched
+     */
+    public static boolean matchesSearch(Member member, String searchTerm) {
+        String term = searchTerm.toLowerCase(Locale.ROOT);
+        return containsIgnoreCase(member.getFirstName(), term)
+            || containsIgnoreCase(member.getLastName(), term)
+            || containsIgnoreCase(member.getEmail(), term)
+            || containsIgnoreCase(member.getId(), term);
+    }
+    
+    private static boolean containsIgnoreCase(String value, String lowerCaseTerm) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(lowerCaseTerm);
+    }
+    
     public void updateMember(Member member) throws DatabaseException {
         String sql = "UPDATE members SET first_name = ?, last_name = ?, email = ?, phone = ?, membership_type = ?, membership_expiry = ?, borrowed_books_count = ?, is_active = ? WHERE id = ?";
         
@@ -123,6 +234,50 @@ public class MemberDAO {
             }
         } catch (SQLException e) {
             throw new DatabaseException("Failed to update member: " + e.getMessage(), e);
+        } finally {
+            cacheManager.invalidate(memberCache, member.getId());
+            cacheManager.invalidateReports();
+        }
+    }
+    
+    /**
+     * Counts one more borrowed book for an active member still under the limit.
+     * @return false if the member is missing, inactive or already at the limit
+     */
+    public boolean incrementBorrowedBooksCount(String id, int maxBorrowLimit) throws DatabaseException {
+        String sql = "UPDATE members SET borrowed_books_count = borrowed_books_count + 1 WHERE id = ? AND is_active = true AND borrowed_books_count < ?";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setString(1, id);
+            stmt.setInt(2, maxBorrowLimit);
+            return stmt.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to increment borrowed books count: " + e.getMessage(), e);
+        } finally {
+            cacheManager.invalidate(memberCache, id);
+            cacheManager.invalidateReports();
+        }
+    }
+    
+    /**
+     * Counts one fewer borrowed book, never going below zero.
+     * @return false if the member is missing or has no borrowed books
+     */
+    public boolean decrementBorrowedBooksCount(String id) throws DatabaseException {
+        String sql = "UPDATE members SET borrowed_books_count = borrowed_books_count - 1 WHERE id = ? AND borrowed_books_count > 0";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setString(1, id);
+            return stmt.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to decrement borrowed books count: " + e.getMessage(), e);
+        } finally {
+            cacheManager.invalidate(memberCache, id);
+            cacheManager.invalidateReports();
         }
     }
     
@@ -139,6 +294,9 @@ public class MemberDAO {
             }
         } catch (SQLException e) {
             throw new DatabaseException("Failed to delete member: " + e.getMessage(), e);
+        } finally {
+            cacheManager.invalidate(memberCache, id);
+            cacheManager.invalidateReports();
         }
     }
     
@@ -0,0 +1,52 @@
+package com.library.dao;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated query.
+ * The next page is fetched by passing the last item of this page back to the DAO as the cursor,
+ * so every page costs an index seek no matter how deep into the table it is.
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final boolean hasMore;
+    
+    public Page(List<T> items, boolean hasMore) {
+        this.items = Collections.unmodifiableList(items);
+        this.hasMore = hasMore;
+    }
+    
+    /**
+     * Builds a page from a query that fetched one row more than the page size
+     */
+    static <T> Page<T> fromOverfetch(List<T> rows, int pageSize) {
+        if (rows.size() > pageSize) {
+            return new Page<>(rows.subList(0, pageSize), true);
+        }
+        return new Page<>(rows, false);
+    }
+    
+    public List<T> getItems() {
+        return items;
+    }
+    
+    public boolean hasMore() {
+        return hasMore;
+    }
+    
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+    
+    public int size() {
+        return items.size();
+    }
+    
+    /**
+     * Cursor for the next page, or null if the page is empty
+     */
+    public T getLastItem() {
+        return items.isEmpty() ? null : items.get(items.size() - 1);
+    }
+}
@@ -0,0 +1,48 @@
+package com.library.dao;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Row count and keyset cursors for every page of a paginated query.
+ * Cursor i is the last row of page i, so page n can be fetched directly by passing
+ * getCursorBefore(n) to the DAO's findPage. Only the key columns of each cursor are set.
+ */
+public class PageIndex<T> {
+    private final long totalRows;
+    private final int pageSize;
+    private final List<T> cursors;
+    
+    public PageIndex(long totalRows, int pageSize, List<T> cursors) {
+        this.totalRows = totalRows;
+        this.pageSize = pageSize;
+        this.cursors = Collections.unmodifiableList(cursors);
+    }
+    
+    public static <T> PageIndex<T> empty(int pageSize) {
+        return new PageIndex<>(0, pageSize, Collections.emptyList());
+    }
+    
+    public long getTotalRows() {
+        return totalRows;
+    }
+    
+    public int getPageSize() {
+        return pageSize;
+    }
+    
+    /**
+     * Cursor to fetch the given page with; null for the first page
+     * @throws IndexOutOfBoundsException if the page is past the last cursor
+     */
+    public T getCursorBefore(int pageNumber) {
+        return pageNumber == 0 ? null : cursors.get(pageNumber - 1);
+    }
+    
+    /**
+     * Pages that can be fetched, including a final partial page
+     */
+    public int getPageCount() {
+        return cursors.size() + 1;
+    }
+}
@@ -0,0 +1,136 @@
+package com.library.dao;
+
+import com.library.model.BookPopularity;
+import com.library.model.CompactBorrowRecord;
+import com.library.model.OverdueLoan;
+import com.library.util.DatabaseConnection;
+import com.library.exception.DatabaseException;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Data Access Object for reporting queries
+ * Joins and aggregations run in the database so reports need one round-trip each;
+ * borrow counts come from BorrowHistoryStore instead
+ */
+public class ReportDAO {
+    private static final int STREAM_FETCH_SIZE = 500;
+    // Well under SQLite's limit on bound parameters
+    private static final int LOOKUP_BATCH_SIZE = 500;
+    
+    private final DatabaseConnection dbConnection;
+    
+    public ReportDAO() {
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+    
+    public List<OverdueLoan> findOverdueLoans() throws DatabaseException {
+        List<OverdueLoan> loans = new ArrayList<>();
+        forEachOverdueLoan(loans::add);
+        return loans;
+    }
+    
+    /**
+     * Streams the loans flagged OVERDUE, oldest due date first, from a forward-only cursor
+     */
+    public <E extends Exception> void forEachOverdueLoan(RowHandler<OverdueLoan, E> handler) throws DatabaseException, E {
+        String sql = "SELECT r.*, b.title AS book_title FROM borrow_records r " +
+                     "LEFT JOIN books b ON b.isbn = r.isbn " +
+                     "WHERE r.status = 'OVERDUE' ORDER BY r.due_date";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = prepareForwardOnly(conn, sql);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            while (rs.next()) {
+                CompactBorrowRecord record = BorrowRecordDAO.mapResultSetToCompactRecord(rs);
+                handler.handle(new OverdueLoan(record, rs.getString("book_title")));
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to find overdue loans: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Streams the given books with their counts taken from borrowCounts (BorrowHistoryStore's
+     * counts), looked up by primary key LOOKUP_BATCH_SIZE ISBNs per query, so the cost follows
+     * the books asked for rather than the catalog. ISBNs no longer in the catalog are skipped.
+     * Unordered.
+     */
+    public <E extends Exception> void forEachBook(List<String> isbns, ToIntFunction<String> borrowCounts,
+                                                  RowHandler<BookPopularity, E> handler) throws DatabaseException, E {
+        try (Connection conn = dbConnection.getConnection()) {
+            PreparedStatement batchStmt = null;
+            try {
+                for (int from = 0; from < isbns.size(); from += LOOKUP_BATCH_SIZE) {
+                    List<String> batch = isbns.subList(from, Math.min(from + LOOKUP_BATCH_SIZE, isbns.size()));
+                    if (batch.size() < LOOKUP_BATCH_SIZE) {
+                        try (PreparedStatement stmt = conn.prepareStatement(booksByIsbnSql(batch.size()))) {
+                            readBooks(stmt, batch, borrowCounts, handler);
+                        }
+                    } else {
+                        if (batchStmt == null) {
+                            batchStmt = conn.prepareStatement(booksByIsbnSql(LOOKUP_BATCH_SIZE));
+                        }
+                        readBooks(batchStmt, batch, borrowCounts, handler);
+                    }
+                }
+            } finally {
+                if (batchStmt != null) {
+                    batchStmt.close();
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to read borrowed books: " + e.getMessage(), e);
+        }
+    }
+    
+    private static String booksByIsbnSql(int isbns) {
+        return "SELECT isbn, title, author FROM books WHERE isbn IN (" +
+               String.join(", ", Collections.nCopies(isbns, "?")) + ")";
+    }
+    
+    private <E extends Exception> void readBooks(PreparedStatement stmt, List<String> isbns, ToIntFunction<String> borrowCounts,
+                                                 RowHandler<BookPopularity, E> handler) throws SQLException, E {
+        for (int i = 0; i < isbns.size(); i++) {
+            stmt.setString(i + 1, isbns.get(i));
+        }
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                String isbn = rs.getString("isbn");
+                handler.handle(new BookPopularity(isbn, rs.getString("title"), rs.getString("author"),
+                    borrowCounts.applyAsInt(isbn)));
+            }
+        }
+    }
+    
+    public Map<String, Long> countActiveMembersByType() throws DatabaseException {
+        String sql = "SELECT membership_type, COUNT(*) AS member_count FROM members " +
+                     "WHERE is_active = true GROUP BY membership_type";
+        Map<String, Long> counts = new LinkedHashMap<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            while (rs.next()) {
+                counts.put(rs.getString("membership_type"), rs.getLong("member_count"));
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to count members by type: " + e.getMessage(), e);
+        }
+        
+        return counts;
+    }
+    
+    private PreparedStatement prepareForwardOnly(Connection conn, String sql) throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        stmt.setFetchSize(STREAM_FETCH_SIZE);
+        return stmt;
+    }
+}
@@ -0,0 +1,10 @@
+package com.library.dao;
+
+/**
+ * Receives the rows of a streamed query one at a time, while the result set is still open.
+ * The exception type lets a handler that writes to a file or channel pass its IOException through.
+ */
+@FunctionalInterface
+public interface RowHandler<T, E extends Exception> {
+    void handle(T row) throws E;
+}
@@ -0,0 +1,214 @@
+package com.library.dao;
+
+import com.library.model.LibraryStatistics;
+import com.library.util.CacheManager;
+import com.library.util.DatabaseConnection;
+import com.library.exception.DatabaseException;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object for the library_stats snapshot.
+ * Triggers keep the snapshot current; this class reads it and checks it against the source tables.
+ * The checks scan and run in a read transaction; the corrections are short writes.
+ */
+public class StatisticsDAO {
+    private final DatabaseConnection dbConnection;
+    private final CacheManager cacheManager;
+    
+    public StatisticsDAO() {
+        this.dbConnection = DatabaseConnection.getInstance();
+        this.cacheManager = CacheManager.getInstance();
+    }
+    
+    /**
+     * Reads the single snapshot row
+     */
+    public LibraryStatistics findSnapshot() throws DatabaseException {
+        String sql = "SELECT * FROM library_stats WHERE id = 1";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            if (!rs.next()) {
+                throw new DatabaseException("Library statistics row is missing");
+            }
+            return new LibraryStatistics(
+                rs.getLong("active_books"),
+                rs.getLong("available_books"),
+                rs.getLong("distinct_authors"),
+                rs.getLong("distinct_categories"),
+                rs.getLong("active_members"),
+                rs.getLong("borrow_records"),
+                rs.getLong("active_borrows"),
+                rs.getLong("overdue_borrows"),
+                rs.getDate("overdue_cutoff").toLocalDate());
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to read library statistics: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Moves the overdue cutoff forward to the given day, counting the loans still BORROWED
+     * that fell due in between. It reads only those loans through the status and due date
+     * index, and once OverdueService has flagged the day there are usually none.
+     * @return false if the cutoff was already there
+     */
+    public boolean advanceOverdueCutoff(LocalDate overdueCutoff) throws DatabaseException {
+        String sql = "UPDATE library_stats SET " +
+                     "overdue_borrows = overdue_borrows + (SELECT COUNT(*) FROM borrow_records " +
+                     "WHERE status = 'BORROWED' AND due_date >= library_stats.overdue_cutoff AND due_date < ?), " +
+                     "overdue_cutoff = ? WHERE id = 1 AND overdue_cutoff < ?";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            Date cutoff = Date.valueOf(overdueCutoff);
+            stmt.setDate(1, cutoff);
+            stmt.setDate(2, cutoff);
+            stmt.setDate(3, cutoff);
+            if (stmt.executeUpdate() == 0) {
+                return false;
+            }
+            cacheManager.invalidateReports();
+            return true;
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to advance the overdue cutoff: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Counts every snapshot counter from the source tables, overdue loans as of the given cutoff.
+     * Scans all three tables, so run it in a read transaction, where writers carry on meanwhile.
+     */
+    public LibraryStatistics countFromSources(LocalDate overdueCutoff) throws DatabaseException {
+        String sql = "SELECT " +
+                     "(SELECT COUNT(*) FROM books WHERE is_active = true) AS active_books, " +
+                     "(SELECT COUNT(*) FROM books WHERE is_active = true AND available_copies > 0) AS available_books, " +
+                     "(SELECT COUNT(DISTINCT author) FROM books WHERE is_active = true) AS distinct_authors, " +
+                     "(SELECT COUNT(DISTINCT category) FROM books WHERE is_active = true) AS distinct_categories, " +
+                     "(SELECT COUNT(*) FROM members WHERE is_active = true) AS active_members, " +
+                     "(SELECT COUNT(*) FROM borrow_records) AS borrow_records, " +
+                     "(SELECT COUNT(*) FROM borrow_records WHERE status IN ('BORROWED', 'OVERDUE')) AS active_borrows, " +
+                     "(SELECT COUNT(*) FROM borrow_records WHERE status = 'OVERDUE' OR (status = 'BORROWED' AND due_date < ?)) AS overdue_borrows";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setDate(1, Date.valueOf(overdueCutoff));
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return new LibraryStatistics(
+                    rs.getLong("active_books"),
+                    rs.getLong("available_books"),
+                    rs.getLong("distinct_authors"),
+                    rs.getLong("distinct_categories"),
+                    rs.getLong("active_members"),
+                    rs.getLong("borrow_records"),
+                    rs.getLong("active_borrows"),
+                    rs.getLong("overdue_borrows"),
+                    overdueCutoff);
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to count library statistics: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Authors whose book_author_counts row disagrees with the active books, or is missing
+     * from either side. Scans the books table, so run it in a read transaction.
+     */
+    public List<String> findDriftedAuthors() throws DatabaseException {
+        return findDriftedValues("book_author_counts", "author");
+    }
+    
+    public List<String> findDriftedCategories() throws DatabaseException {
+        return findDriftedValues("book_category_counts", "category");
+    }
+    
+    private List<String> findDriftedValues(String table, String column) throws DatabaseException {
+        String counted = "SELECT " + column + ", COUNT(*) FROM books WHERE is_active = true GROUP BY " + column;
+        String stored = "SELECT " + column + ", books FROM " + table;
+        String sql = "SELECT " + column + " FROM (" + counted + " EXCEPT " + stored + ") " +
+                     "UNION SELECT " + column + " FROM (" + stored + " EXCEPT " + counted + ")";
+        List<String> values = new ArrayList<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            while (rs.next()) {
+                values.add(rs.getString(1));
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to check " + table + ": " + e.getMessage(), e);
+        }
+        return values;
+    }
+    
+    /**
+     * Recounts the given authors' rows from the books table, one indexed lookup each,
+     * so it is short enough for the write lock. Their triggers keep distinct_authors in step.
+     */
+    public void recountAuthors(List<String> authors) throws DatabaseException {
+        recountValues("book_author_counts", "author", authors);
+    }
+    
+    public void recountCategories(List<String> categories) throws DatabaseException {
+        recountValues("book_category_counts", "category", categories);
+    }
+    
+    private void recountValues(String table, String column, List<String> values) throws DatabaseException {
+        if (values.isEmpty()) {
+            return;
+        }
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement deleteStmt = conn.prepareStatement(
+                 "DELETE FROM " + table + " WHERE " + column + " = ?");
+             PreparedStatement insertStmt = conn.prepareStatement(
+                 "INSERT INTO " + table + " (" + column + ", books) SELECT " + column + ", COUNT(*) " +
+                 "FROM books WHERE is_active = true AND " + column + " = ? GROUP BY " + column)) {
+            
+            for (String value : values) {
+                deleteStmt.setString(1, value);
+                deleteStmt.executeUpdate();
+                insertStmt.setString(1, value);
+                insertStmt.executeUpdate();
+            }
+            cacheManager.invalidateReports();
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to recount " + table + ": " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Overwrites the counters with ones taken by countFromSources, and the distinct counters
+     * with the size of the per-value tables. Leaves the overdue cutoff alone. Only valid while
+     * no write has moved the counters since they were taken.
+     */
+    public void applyCounts(LibraryStatistics counts) throws DatabaseException {
+        String sql = "UPDATE library_stats SET active_books = ?, available_books = ?, " +
+                     "distinct_authors = (SELECT COUNT(*) FROM book_author_counts), " +
+                     "distinct_categories = (SELECT COUNT(*) FROM book_category_counts), " +
+                     "active_members = ?, borrow_records = ?, active_borrows = ?, overdue_borrows = ? WHERE id = 1";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setLong(1, counts.getActiveBooks());
+            stmt.setLong(2, counts.getAvailableBooks());
+            stmt.setLong(3, counts.getActiveMembers());
+            stmt.setLong(4, counts.getBorrowRecords());
+            stmt.setLong(5, counts.getActiveBorrows());
+            stmt.setLong(6, counts.getOverdueBorrows());
+            stmt.executeUpdate();
+            cacheManager.invalidateReports();
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to update library statistics: " + e.getMessage(), e);
+        }
+    }
+}
@@ -1,18 +1,14 @@
 package com.library.gui;
 
+import com.library.dao.Page;
+import com.library.dao.PageIndex;
 import com.library.model.Book;
 import com.library.service.BookService;
-import com.library.exception.DatabaseException;
 
 import javax.swing.*;
-import javax.swing.table.AbstractTableModel;
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.util.List;
-import java.util.ArrayList;
 
 /**
  * Dialog for displaying list of books
@@ -21,12 +17,11 @@ public class BookListDialog extends JDialog {
     private final BookService bookService;
     private JTable bookTable;
     private BookTableModel tableModel;
-    private List<Book> books;
+    private LoadStatusPanel statusPanel;
     
     public BookListDialog(Frame parent, BookService bookService) {
         super(parent, "Book List", true);
         this.bookService = bookService;
-        this.books = new ArrayList<>();
         
         initializeDialog();
         loadBooks();
@@ -77,25 +72,45 @@ public class BookListDialog extends JDialog {
         buttonPanel.add(refreshButton);
         buttonPanel.add(closeButton);
         
+        statusPanel = new LoadStatusPanel();
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.add(statusPanel, BorderLayout.NORTH);
+        southPanel.add(buttonPanel, BorderLayout.SOUTH);
+        
         add(scrollPane, BorderLayout.CENTER);
-        add(buttonPanel, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
     }
     
+    /**
+     * Recounts the catalog in the background; rows are fetched a page at a time as they scroll into view
+     */
     private void loadBooks() {
-        try {
-            books = bookService.getAllBooks();
-            tableModel.fireTableDataChanged();
-            
-            if (books.isEmpty()) {
-                JLabel noDataLabel = new JLabel("No books found in the library.", SwingConstants.CENTER);
-                noDataLabel.setFont(new Font("Arial", Font.ITALIC, 14));
-                noDataLabel.setForeground(Color.GRAY);
-            }
-        } catch (DatabaseException e) {
+        tableModel.refresh(statusPanel, "Error loading books: ");
+    }
+    
+    /**
+     * @return the selected book, or null after telling the user why there is none
+     */
+    private Book getSelectedBook(String action) {
+        int selectedRow = bookTable.getSelectedRow();
+        if (selectedRow == -1) {
             JOptionPane.showMessageDialog(this,
-                "Error loading books: " + e.getMessage(),
-                "Database Error", JOptionPane.ERROR_MESSAGE);
+                "Please select a book to " + action + ".", "No Selection", JOptionPane.WARNING_MESSAGE);
+            return null;
         }
+        
+        Book selectedBook = tableModel.getRow(selectedRow);
+        if (selectedBook == null) {
+            JOptionPane.showMessageDialog(this,
+                "The selected book is still loading, please try again.", "Loading", JOptionPane.INFORMATION_MESSAGE);
+        }
+        return selectedBook;
+    }
+    
+    @Override
+    public void dispose() {
+        statusPanel.cancel();
+        super.dispose();
     }
     
     private void addNewBook() {
@@ -105,28 +120,22 @@ public class BookListDialog extends JDialog {
     }
     
     private void editSelectedBook() {
-        int selectedRow = bookTable.getSelectedRow();
-        if (selectedRow == -1) {
-            JOptionPane.showMessageDialog(this,
-                "Please select a book to edit.", "No Selection", JOptionPane.WARNING_MESSAGE);
+        Book selectedBook = getSelectedBook("edit");
+        if (selectedBook == null) {
             return;
         }
         
-        Book selectedBook = books.get(selectedRow);
         BookManagementDialog dialog = new BookManagementDialog((Frame) getParent(), bookService, selectedBook);
         dialog.setVisible(true);
         loadBooks(); // Refresh the list
     }
     
     private void deleteSelectedBook() {
-        int selectedRow = bookTable.getSelectedRow();
-        if (selectedRow == -1) {
-            JOptionPane.showMessageDialog(this,
-                "Please select a book to delete.", "No Selection", JOptionPane.WARNING_MESSAGE);
+        Book selectedBook = getSelectedBook("delete");
+        if (selectedBook == null) {
             return;
         }
         
-        Book selectedBook = books.get(selectedRow);
         int result = JOptionPane.showConfirmDialog(this,
             "Are you sure you want to delete the book:\n" + selectedBook.getTitle() + "?",
             "Confirm Delete", JOptionPane.YES_NO_OPTION);
@@ -145,14 +154,23 @@ public class BookListDialog extends JDialog {
         }
     }
     
-    private class BookTableModel extends AbstractTableModel {
+    private class BookTableModel extends PagedTableModel<Book> {
         private final String[] columnNames = {
             "ISBN", "Title", "Author", "Category", "Publisher", "Copies", "Available", "Active"
         };
         
-        @Override
-        public int getRowCount() {
-            return books.size();
+        BookTableModel() {
+            super(new Source<Book>() {
+                @Override
+                public PageIndex<Book> loadIndex(int pageSize) throws Exception {
+                    return bookService.getBooksPageIndex(pageSize);
+                }
+                
+                @Override
+                public Page<Book> fetch(Book after, int pageSize) throws Exception {
+                    return bookService.getBooksPage(after, pageSize);
+                }
+            });
         }
         
         @Override
@@ -166,8 +184,7 @@ public class BookListDialog extends JDialog {
         }
         
         @Override
-        public Object getValueAt(int rowIndex, int columnIndex) {
-            Book book = books.get(rowIndex);
+        protected Object getColumnValue(Book book, int columnIndex) {
             switch (columnIndex) {
                 case 0: return book.getIsbn();
                 case 1: return book.getTitle();
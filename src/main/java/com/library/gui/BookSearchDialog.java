@@ -2,7 +2,6 @@ package com.library.gui;
 
 import com.library.model.Book;
 import com.library.service.BookService;
-import com.library.exception.DatabaseException;
 
 import javax.swing.*;
 import javax.swing.table.AbstractTableModel;
@@ -20,7 +19,9 @@ public class BookSearchDialog extends JDialog {
     private JTextField searchField;
     private JTable resultTable;
     private BookSearchTableModel tableModel;
-    private List<Book> searchResults;
+    private JLabel statusLabel;
+    private IncrementalSearch<Book> incrementalSearch;
+    private final List<Book> searchResults;
     
     public BookSearchDialog(Frame parent, BookService bookService) {
         super(parent, "Search Books", true);
@@ -48,6 +49,22 @@ public class BookSearchDialog extends JDialog {
         // Enter key support for search
         searchField.addActionListener(new SearchButtonListener());
         
+        // Results follow the text as it is typed
+        statusLabel = new JLabel(" ");
+        incrementalSearch = new IncrementalSearch<>(searchField, statusLabel,
+            new IncrementalSearch.Searcher<Book>() {
+                @Override
+                public List<Book> search(String term, int limit) throws Exception {
+                    return bookService.searchBooks(term, limit);
+                }
+                
+                @Override
+                public boolean matches(Book book, String term) {
+                    return bookService.matchesSearch(book, term);
+                }
+            },
+            rows -> tableModel.setRows(rows), "No books found matching your search criteria.");
+        
         searchPanel.add(searchField);
         searchPanel.add(searchButton);
         searchPanel.add(clearButton);
@@ -67,9 +84,15 @@ public class BookSearchDialog extends JDialog {
         closeButton.addActionListener(e -> dispose());
         buttonPanel.add(closeButton);
         
+        JPanel statusPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        statusPanel.add(statusLabel);
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.add(statusPanel, BorderLayout.NORTH);
+        southPanel.add(buttonPanel, BorderLayout.SOUTH);
+        
         add(searchPanel, BorderLayout.NORTH);
         add(scrollPane, BorderLayout.CENTER);
-        add(buttonPanel, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
         
         // Initial empty state
         showEmptyState();
@@ -77,13 +100,18 @@ public class BookSearchDialog extends JDialog {
     
     private void showEmptyState() {
         // You can customize this to show instructions
-        searchResults.clear();
-        tableModel.fireTableDataChanged();
+        tableModel.clear();
     }
     
     private void clearResults() {
         searchField.setText("");
-        showEmptyState();
+        incrementalSearch.searchNow();
+    }
+    
+    @Override
+    public void dispose() {
+        incrementalSearch.cancel();
+        super.dispose();
     }
     
     private class SearchButtonListener implements ActionListener {
@@ -96,20 +124,8 @@ public class BookSearchDialog extends JDialog {
                 return;
             }
             
-            try {
-                searchResults = bookService.searchBooks(searchTerm);
-                tableModel.fireTableDataChanged();
-                
-                if (searchResults.isEmpty()) {
-                    JOptionPane.showMessageDialog(BookSearchDialog.this,
-                        "No books found matching your search criteria.",
-                        "No Results", JOptionPane.INFORMATION_MESSAGE);
-                }
-            } catch (DatabaseException ex) {
-                JOptionPane.showMessageDialog(BookSearchDialog.this,
-                    "Error searching books: " + ex.getMessage(),
-                    "Search Error", JOptionPane.ERROR_MESSAGE);
-            }
+            // Skip the typing delay
+            incrementalSearch.searchNow();
         }
     }
     
@@ -118,6 +134,17 @@ public class BookSearchDialog extends JDialog {
             "ISBN", "Title", "Author", "Category", "Available", "Total Copies"
         };
         
+        void clear() {
+            searchResults.clear();
+            fireTableDataChanged();
+        }
+        
+        void setRows(List<Book> rows) {
+            searchResults.clear();
+            searchResults.addAll(rows);
+            fireTableDataChanged();
+        }
+        
         @Override
         public int getRowCount() {
             return searchResults.size();
@@ -1,11 +1,13 @@
 package com.library.gui;
 
+import com.library.dao.Page;
+import com.library.dao.PageIndex;
 import com.library.model.BorrowRecord;
 import com.library.service.BorrowingService;
-import com.library.exception.DatabaseException;
 
 import javax.swing.*;
 import javax.swing.table.AbstractTableModel;
+import javax.swing.table.TableModel;
 import java.awt.*;
 import java.util.List;
 import java.util.ArrayList;
@@ -14,10 +16,16 @@ import java.util.ArrayList;
  * Dialog for displaying borrow records
  */
 public class BorrowListDialog extends JDialog {
+    private static final String[] COLUMN_NAMES = {
+        "Record ID", "Member ID", "ISBN", "Borrow Date", "Due Date", "Return Date", "Status", "Fine"
+    };
+    
     private final BorrowingService borrowingService;
     private JTable borrowTable;
+    private BorrowPageModel pageModel;
     private BorrowTableModel tableModel;
-    private List<BorrowRecord> borrowRecords;
+    private LoadStatusPanel statusPanel;
+    private final List<BorrowRecord> borrowRecords;
     
     public BorrowListDialog(Frame parent, BorrowingService borrowingService) {
         super(parent, "Borrow Records", true);
@@ -33,9 +41,10 @@ public class BorrowListDialog extends JDialog {
         setLocationRelativeTo(getParent());
         setLayout(new BorderLayout());
         
-        // Create table
+        // Create table; the full history is paged in lazily, the filtered views are held in memory
+        pageModel = new BorrowPageModel();
         tableModel = new BorrowTableModel();
-        borrowTable = new JTable(tableModel);
+        borrowTable = new JTable(pageModel);
         borrowTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         borrowTable.setRowHeight(25);
         
@@ -63,54 +72,120 @@ public class BorrowListDialog extends JDialog {
         buttonPanel.add(allButton);
         buttonPanel.add(closeButton);
         
+        statusPanel = new LoadStatusPanel();
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.add(statusPanel, BorderLayout.NORTH);
+        southPanel.add(buttonPanel, BorderLayout.SOUTH);
+        
         add(scrollPane, BorderLayout.CENTER);
-        add(buttonPanel, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
     }
     
     private void loadBorrowRecords() {
-        try {
-            borrowRecords = borrowingService.getAllBorrowRecords();
-            tableModel.fireTableDataChanged();
-            setTitle("All Borrow Records (" + borrowRecords.size() + ")");
-        } catch (DatabaseException e) {
-            JOptionPane.showMessageDialog(this,
-                "Error loading borrow records: " + e.getMessage(),
-                "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        showModel(pageModel);
+        setTitle("All Borrow Records (loading...)");
+        pageModel.refresh(statusPanel, "Error loading borrow records: ");
     }
     
     private void loadOverdueRecords() {
-        try {
-            borrowRecords = borrowingService.getOverdueRecords();
-            tableModel.fireTableDataChanged();
-            setTitle("Overdue Records (" + borrowRecords.size() + ")");
-        } catch (DatabaseException e) {
-            JOptionPane.showMessageDialog(this,
-                "Error loading overdue records: " + e.getMessage(),
-                "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        startLoad(new TableLoader<BorrowRecord>(TableLoader.allAtOnce(borrowingService::getOverdueRecords), statusPanel,
+            tableModel::addRows, "Error loading overdue records: "), "Overdue Records");
     }
     
     private void loadActiveRecords() {
-        try {
-            borrowRecords = borrowingService.getAllBorrowRecords();
-            // Filter for active records (not returned)
-            borrowRecords = borrowRecords.stream()
-                .filter(record -> record.getReturnDate() == null)
-                .collect(java.util.stream.Collectors.toList());
-            tableModel.fireTableDataChanged();
-            setTitle("Active Borrow Records (" + borrowRecords.size() + ")");
-        } catch (DatabaseException e) {
-            JOptionPane.showMessageDialog(this,
-                "Error loading active records: " + e.getMessage(),
-                "Database Error", JOptionPane.ERROR_MESSAGE);
+        // Filter for active records (not returned) as the pages arrive
+        startLoad(new TableLoader<BorrowRecord>(borrowingService::getBorrowRecordsPage, statusPanel,
+            tableModel::addRows, "Error loading active records: ")
+                .filter(record -> record.getReturnDate() == null), "Active Borrow Records");
+    }
+    
+    private void startLoad(TableLoader<BorrowRecord> loader, String title) {
+        showModel(tableModel);
+        tableModel.clear();
+        setTitle(title + " (loading...)");
+        loader.onFinished(rows -> setTitle(title + " (" + rows + ")")).start();
+    }
+    
+    private void showModel(TableModel model) {
+        if (borrowTable.getModel() != model) {
+            borrowTable.setModel(model);
+        }
+    }
+    
+    @Override
+    public void dispose() {
+        statusPanel.cancel();
+        super.dispose();
+    }
+    
+    private static Object getColumnValue(BorrowRecord record, int columnIndex) {
+        switch (columnIndex) {
+            case 0: return record.getRecordId();
+            case 1: return record.getMemberId();
+            case 2: return record.getIsbn();
+            case 3: return record.getBorrowDate().toString();
+            case 4: return record.getDueDate().toString();
+            case 5: return record.getReturnDate() != null ? record.getReturnDate().toString() : "Not Returned";
+            case 6: return record.getStatus();
+            case 7: return String.format("$%.2f", record.getFineAmount());
+            default: return "";
         }
     }
     
+    /**
+     * Whole borrow history, fetched a page at a time as it scrolls into view
+     */
+    private class BorrowPageModel extends PagedTableModel<BorrowRecord> {
+        BorrowPageModel() {
+            super(new Source<BorrowRecord>() {
+                @Override
+                public PageIndex<BorrowRecord> loadIndex(int pageSize) throws Exception {
+                    return borrowingService.getBorrowRecordsPageIndex(pageSize);
+                }
+                
+                @Override
+                public Page<BorrowRecord> fetch(BorrowRecord after, int pageSize) throws Exception {
+                    return borrowingService.getBorrowRecordsPage(after, pageSize);
+                }
+            });
+            onRefreshed(rows -> setTitle("All Borrow Records (" + rows + ")"));
+        }
+        
+        @Override
+        public int getColumnCount() {
+            return COLUMN_NAMES.length;
+        }
+        
+        @Override
+        public String getColumnName(int column) {
+            return COLUMN_NAMES[column];
+        }
+        
+        @Override
+        protected Object getColumnValue(BorrowRecord record, int columnIndex) {
+            return BorrowListDialog.getColumnValue(record, columnIndex);
+        }
+        
+        @Override
+        public Class<?> getColumnClass(int columnIndex) {
+            return String.class;
+        }
+    }
+    
+    /**
+     * Overdue or active records, held in memory
+     */
     private class BorrowTableModel extends AbstractTableModel {
-        private final String[] columnNames = {
-            "Record ID", "Member ID", "ISBN", "Borrow Date", "Due Date", "Return Date", "Status", "Fine"
-        };
+        void clear() {
+            borrowRecords.clear();
+            fireTableDataChanged();
+        }
+        
+        void addRows(List<BorrowRecord> rows) {
+            int firstRow = borrowRecords.size();
+            borrowRecords.addAll(rows);
+            fireTableRowsInserted(firstRow, borrowRecords.size() - 1);
+        }
         
         @Override
         public int getRowCount() {
@@ -119,28 +194,17 @@ public class BorrowListDialog extends JDialog {
         
         @Override
         public int getColumnCount() {
-            return columnNames.length;
+            return COLUMN_NAMES.length;
         }
         
         @Override
         public String getColumnName(int column) {
-            return columnNames[column];
+            return COLUMN_NAMES[column];
         }
         
         @Override
         public Object getValueAt(int rowIndex, int columnIndex) {
-            BorrowRecord record = borrowRecords.get(rowIndex);
-            switch (columnIndex) {
-                case 0: return record.getRecordId();
-                case 1: return record.getMemberId();
-                case 2: return record.getIsbn();
-                case 3: return record.getBorrowDate().toString();
-                case 4: return record.getDueDate().toString();
-                case 5: return record.getReturnDate() != null ? record.getReturnDate().toString() : "Not Returned";
-                case 6: return record.getStatus();
-                case 7: return String.format("$%.2f", record.getFineAmount());
-                default: return "";
-            }
+            return getColumnValue(borrowRecords.get(rowIndex), columnIndex);
         }
         
         @Override
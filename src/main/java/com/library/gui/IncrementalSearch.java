@@ -0,0 +1,169 @@
+package com.library.gui;
+
+import com.library.util.AsyncExecutor;
+import com.library.util.ConfigReader;
+import com.library.util.FileLogger;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Search-as-you-type for a text field.
+ * Typing restarts a gui.search.debounce.ms timer, so only the term the user pauses on is
+ * searched. Queries run on AsyncExecutor and return at most gui.search.max.results rows;
+ * a query overtaken by a newer term is skipped before it reaches the database, and its
+ * results are dropped if it was already running. When the term only extends the previous
+ * one and that result was complete, the previous rows are filtered in memory instead.
+ */
+class IncrementalSearch<T> {
+    /**
+     * The search behind the field
+     */
+    interface Searcher<T> {
+        List<T> search(String term, int limit) throws Exception;
+        
+        /**
+         * In-memory equivalent of search, used to narrow earlier results
+         */
+        boolean matches(T row, String term);
+    }
+    
+    private final Searcher<T> searcher;
+    private final JTextField searchField;
+    private final JLabel statusLabel;
+    private final Consumer<List<T>> resultsShown;
+    private final String noResultsMessage;
+    private final Timer debounceTimer;
+    private final int maxResults;
+    private final AsyncExecutor asyncExecutor;
+    private final FileLogger logger;
+    // Bumped for every new term; a query only shows its results if it is still the latest
+    private volatile long generation;
+    private String lastTerm;
+    private List<T> lastResults;
+    private boolean lastComplete;
+    
+    /**
+     * @param resultsShown replaces the rows in the table, called on the event dispatch thread
+     */
+    IncrementalSearch(JTextField searchField, JLabel statusLabel, Searcher<T> searcher,
+                      Consumer<List<T>> resultsShown, String noResultsMessage) {
+        this.searcher = searcher;
+        this.searchField = searchField;
+        this.statusLabel = statusLabel;
+        this.resultsShown = resultsShown;
+        this.noResultsMessage = noResultsMessage;
+        this.asyncExecutor = AsyncExecutor.getInstance();
+        this.logger = FileLogger.getInstance();
+        
+        ConfigReader configReader = ConfigReader.getInstance();
+        this.maxResults = Math.max(1, configReader.getIntProperty("gui.search.max.results", 100));
+        this.debounceTimer = new Timer(configReader.getIntProperty("gui.search.debounce.ms", 150), e -> searchNow());
+        this.debounceTimer.setRepeats(false);
+        
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                debounceTimer.restart();
+            }
+            
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                debounceTimer.restart();
+            }
+            
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                // Attribute changes do not alter the term
+            }
+        });
+    }
+    
+    /**
+     * Searches for the current text without waiting for the debounce delay
+     */
+    void searchNow() {
+        debounceTimer.stop();
+        String term = searchField.getText().trim();
+        long searchGeneration = ++generation;
+        
+        if (term.isEmpty()) {
+            remember(null, null, false);
+            resultsShown.accept(new ArrayList<>());
+            statusLabel.setText(" ");
+            return;
+        }
+        if (term.equals(lastTerm)) {
+            return;
+        }
+        
+        if (canNarrow(term)) {
+            List<T> narrowed = new ArrayList<>();
+            for (T row : lastResults) {
+                if (searcher.matches(row, term)) {
+                    narrowed.add(row);
+                }
+            }
+            show(term, narrowed, true);
+            return;
+        }
+        
+        statusLabel.setText("Searching...");
+        // One extra row tells whether the result was cut off
+        asyncExecutor.submit(() -> searchGeneration == generation ? searcher.search(term, maxResults + 1) : null)
+            .whenCompleteAsync((rows, error) -> {
+                if (searchGeneration != generation || (rows == null && error == null)) {
+                    return;
+                }
+                if (error != null) {
+                    logger.log("ERROR", "Incremental search failed for {}: {}", term, error.getMessage());
+                    statusLabel.setText("Search failed: " + error.getMessage());
+                    return;
+                }
+                boolean complete = rows.size() <= maxResults;
+                show(term, complete ? rows : new ArrayList<>(rows.subList(0, maxResults)), complete);
+            }, SwingUtilities::invokeLater);
+    }
+    
+    /**
+     * Drops any search in flight and forgets earlier results
+     */
+    void cancel() {
+        debounceTimer.stop();
+        generation++;
+        remember(null, null, false);
+    }
+    
+    /**
+     * Rows matching a longer term are a subset of a complete earlier result. A term without
+     * letters or digits is searched by substring, so it is never narrowed from.
+     */
+    private boolean canNarrow(String term) {
+        return lastComplete && lastTerm != null
+            && term.toLowerCase(Locale.ROOT).startsWith(lastTerm.toLowerCase(Locale.ROOT))
+            && lastTerm.codePoints().anyMatch(Character::isLetterOrDigit);
+    }
+    
+    private void show(String term, List<T> rows, boolean complete) {
+        remember(term, rows, complete);
+        resultsShown.accept(rows);
+        if (rows.isEmpty()) {
+            statusLabel.setText(noResultsMessage);
+        } else if (complete) {
+            statusLabel.setText(rows.size() + (rows.size() == 1 ? " match" : " matches"));
+        } else {
+            statusLabel.setText("Top " + rows.size() + " matches, keep typing to narrow");
+        }
+    }
+    
+    private void remember(String term, List<T> rows, boolean complete) {
+        lastTerm = term;
+        lastResults = rows;
+        lastComplete = complete;
+    }
+}
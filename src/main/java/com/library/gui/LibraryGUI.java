@@ -4,6 +4,9 @@ import com.library.service.BookService;
 import com.library.service.MemberService;
 import com.library.service.BorrowingService;
 import com.library.service.ReportService;
+import com.library.service.BorrowHistoryStore;
+import com.library.service.OverdueService;
+import com.library.service.StatisticsService;
 import com.library.util.DatabaseConnection;
 import com.library.util.FileLogger;
 import com.library.exception.DatabaseException;
@@ -233,6 +236,9 @@ public class LibraryGUI extends JFrame {
         try {
             // Initialize database
             DatabaseConnection.getInstance().initializeDatabase();
+            StatisticsService.getInstance().startReconciliation();
+            OverdueService.getInstance().start();
+            BorrowHistoryStore.getInstance().startLoading();
             
             SwingUtilities.invokeLater(() -> {
                 new LibraryGUI().setVisible(true);
@@ -0,0 +1,75 @@
+package com.library.gui;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Progress bar and Cancel button for a dialog's background load.
+ * Only the most recently started worker may update the panel, so a refresh that
+ * replaces a running load is never overwritten by the old worker finishing late.
+ */
+class LoadStatusPanel extends JPanel {
+    private final JProgressBar progressBar;
+    private final JButton cancelButton;
+    private SwingWorker<?, ?> worker;
+    
+    LoadStatusPanel() {
+        super(new FlowLayout(FlowLayout.LEFT));
+        
+        progressBar = new JProgressBar();
+        progressBar.setStringPainted(true);
+        progressBar.setString("");
+        progressBar.setPreferredSize(new Dimension(250, 20));
+        
+        cancelButton = new JButton("Cancel");
+        cancelButton.setEnabled(false);
+        cancelButton.addActionListener(e -> cancel());
+        
+        add(progressBar);
+        add(cancelButton);
+    }
+    
+    /**
+     * Cancels any running load and executes the new worker
+     */
+    void start(SwingWorker<?, ?> newWorker, String message) {
+        cancel();
+        worker = newWorker;
+        progressBar.setIndeterminate(true);
+        progressBar.setString(message);
+        cancelButton.setEnabled(true);
+        newWorker.execute();
+    }
+    
+    void showProgress(SwingWorker<?, ?> source, String message) {
+        if (source == worker) {
+            progressBar.setString(message);
+        }
+    }
+    
+    void finish(SwingWorker<?, ?> source, String message) {
+        if (source != worker) {
+            return;
+        }
+        progressBar.setIndeterminate(false);
+        progressBar.setString(message);
+        cancelButton.setEnabled(false);
+    }
+    
+    /**
+     * A finished worker stays current until the next start, since its last rows may be
+     * delivered after it reports done
+     */
+    boolean isCurrent(SwingWorker<?, ?> source) {
+        return source == worker;
+    }
+    
+    /**
+     * Workers stop at their next page or line; a statement already running is not interrupted
+     */
+    void cancel() {
+        if (worker != null && !worker.isDone()) {
+            worker.cancel(false);
+        }
+    }
+}
@@ -2,7 +2,6 @@ package com.library.gui;
 
 import com.library.model.Member;
 import com.library.service.MemberService;
-import com.library.exception.DatabaseException;
 
 import javax.swing.*;
 import javax.swing.table.AbstractTableModel;
@@ -19,7 +18,8 @@ public class MemberListDialog extends JDialog {
     private final MemberService memberService;
     private JTable memberTable;
     private MemberTableModel tableModel;
-    private List<Member> members;
+    private LoadStatusPanel statusPanel;
+    private final List<Member> members;
     
     public MemberListDialog(Frame parent, MemberService memberService) {
         super(parent, "Member List", true);
@@ -75,19 +75,28 @@ public class MemberListDialog extends JDialog {
         buttonPanel.add(refreshButton);
         buttonPanel.add(closeButton);
         
+        statusPanel = new LoadStatusPanel();
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.add(statusPanel, BorderLayout.NORTH);
+        southPanel.add(buttonPanel, BorderLayout.SOUTH);
+        
         add(scrollPane, BorderLayout.CENTER);
-        add(buttonPanel, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
     }
     
+    /**
+     * Pages through the members in the background, appending each page to the table
+     */
     private void loadMembers() {
-        try {
-            members = memberService.getAllMembers();
-            tableModel.fireTableDataChanged();
-        } catch (DatabaseException e) {
-            JOptionPane.showMessageDialog(this,
-                "Error loading members: " + e.getMessage(),
-                "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        tableModel.clear();
+        new TableLoader<Member>(memberService::getMembersPage, statusPanel, tableModel::addRows, "Error loading members: ")
+            .start();
+    }
+    
+    @Override
+    public void dispose() {
+        statusPanel.cancel();
+        super.dispose();
     }
     
     private void addNewMember() {
@@ -142,6 +151,17 @@ public class MemberListDialog extends JDialog {
             "ID", "Name", "Email", "Phone", "Type", "Expiry", "Books Borrowed", "Active"
         };
         
+        void clear() {
+            members.clear();
+            fireTableDataChanged();
+        }
+        
+        void addRows(List<Member> rows) {
+            int firstRow = members.size();
+            members.addAll(rows);
+            fireTableRowsInserted(firstRow, members.size() - 1);
+        }
+        
         @Override
         public int getRowCount() {
             return members.size();
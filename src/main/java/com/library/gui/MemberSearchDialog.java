@@ -2,7 +2,6 @@ package com.library.gui;
 
 import com.library.model.Member;
 import com.library.service.MemberService;
-import com.library.exception.DatabaseException;
 
 import javax.swing.*;
 import javax.swing.table.AbstractTableModel;
@@ -20,7 +19,9 @@ public class MemberSearchDialog extends JDialog {
     private JTextField searchField;
     private JTable resultTable;
     private MemberSearchTableModel tableModel;
-    private List<Member> searchResults;
+    private JLabel statusLabel;
+    private IncrementalSearch<Member> incrementalSearch;
+    private final List<Member> searchResults;
     
     public MemberSearchDialog(Frame parent, MemberService memberService) {
         super(parent, "Search Members", true);
@@ -48,6 +49,22 @@ public class MemberSearchDialog extends JDialog {
         // Enter key support for search
         searchField.addActionListener(new SearchButtonListener());
         
+        // Results follow the text as it is typed
+        statusLabel = new JLabel(" ");
+        incrementalSearch = new IncrementalSearch<>(searchField, statusLabel,
+            new IncrementalSearch.Searcher<Member>() {
+                @Override
+                public List<Member> search(String term, int limit) throws Exception {
+                    return memberService.searchMembers(term, limit);
+                }
+                
+                @Override
+                public boolean matches(Member member, String term) {
+                    return memberService.matchesSearch(member, term);
+                }
+            },
+            rows -> tableModel.setRows(rows), "No members found matching your search criteria.");
+        
         searchPanel.add(searchField);
         searchPanel.add(searchButton);
         searchPanel.add(clearButton);
@@ -67,22 +84,33 @@ public class MemberSearchDialog extends JDialog {
         closeButton.addActionListener(e -> dispose());
         buttonPanel.add(closeButton);
         
+        JPanel statusPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        statusPanel.add(statusLabel);
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.add(statusPanel, BorderLayout.NORTH);
+        southPanel.add(buttonPanel, BorderLayout.SOUTH);
+        
         add(searchPanel, BorderLayout.NORTH);
         add(scrollPane, BorderLayout.CENTER);
-        add(buttonPanel, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
         
         // Initial empty state
         showEmptyState();
     }
     
     private void showEmptyState() {
-        searchResults.clear();
-        tableModel.fireTableDataChanged();
+        tableModel.setRows(new ArrayList<>());
     }
     
     private void clearResults() {
         searchField.setText("");
-        showEmptyState();
+        incrementalSearch.searchNow();
+    }
+    
+    @Override
+    public void dispose() {
+        incrementalSearch.cancel();
+        super.dispose();
     }
     
     private class SearchButtonListener implements ActionListener {
@@ -95,20 +123,8 @@ public class MemberSearchDialog extends JDialog {
                 return;
             }
             
-            try {
-                searchResults = memberService.searchMembers(searchTerm);
-                tableModel.fireTableDataChanged();
-                
-                if (searchResults.isEmpty()) {
-                    JOptionPane.showMessageDialog(MemberSearchDialog.this,
-                        "No members found matching your search criteria.",
-                        "No Results", JOptionPane.INFORMATION_MESSAGE);
-                }
-            } catch (DatabaseException ex) {
-                JOptionPane.showMessageDialog(MemberSearchDialog.this,
-                    "Error searching members: " + ex.getMessage(),
-                    "Search Error", JOptionPane.ERROR_MESSAGE);
-            }
+            // Skip the typing delay
+            incrementalSearch.searchNow();
         }
     }
     
@@ -117,6 +133,12 @@ public class MemberSearchDialog extends JDialog {
             "ID", "Name", "Email", "Phone", "Type", "Status"
         };
         
+        void setRows(List<Member> rows) {
+            searchResults.clear();
+            searchResults.addAll(rows);
+            fireTableDataChanged();
+        }
+        
         @Override
         public int getRowCount() {
             return searchResults.size();
@@ -0,0 +1,207 @@
+package com.library.gui;
+
+import com.library.dao.Page;
+import com.library.dao.PageIndex;
+import com.library.util.AsyncExecutor;
+import com.library.util.ConfigReader;
+import com.library.util.FileLogger;
+import com.library.util.LruCache;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.function.IntConsumer;
+
+/**
+ * Table model that only holds the pages around the rows on screen.
+ * Refreshing loads a page index (row count plus one keyset cursor per page) in the
+ * background; after that any page is a single index seek. Pages are fetched on
+ * AsyncExecutor when the table first asks for one of their rows, together with the
+ * pages either side, and the last gui.table.cache.pages pages are kept in an LRU cache.
+ * Rows show blank until their page arrives and fires an update for its row range.
+ */
+abstract class PagedTableModel<T> extends AbstractTableModel {
+    static final int PAGE_SIZE = 200;
+    private static final int PREFETCH_PAGES = 1;
+    
+    /**
+     * Paged query behind the model; both methods run off the event dispatch thread
+     */
+    interface Source<T> {
+        PageIndex<T> loadIndex(int pageSize) throws Exception;
+        
+        Page<T> fetch(T after, int pageSize) throws Exception;
+    }
+    
+    private final Source<T> source;
+    private final LruCache<Integer, List<T>> pages;
+    private final Set<Integer> pendingPages;
+    private final AsyncExecutor asyncExecutor;
+    private final FileLogger logger;
+    private PageIndex<T> index;
+    private int rowCount;
+    private IntConsumer refreshed = rows -> { };
+    // Page of the row last asked for; fetches drifting too far from it are skipped
+    private volatile int wantedPage;
+    
+    PagedTableModel(Source<T> source) {
+        this.source = source;
+        int cachedPages = ConfigReader.getInstance().getIntProperty("gui.table.cache.pages", 50);
+        // Never smaller than the pages kept around the visible rows
+        this.pages = new LruCache<>("table-pages", Math.max(2 * PREFETCH_PAGES + 2, cachedPages));
+        this.pendingPages = new HashSet<>();
+        this.asyncExecutor = AsyncExecutor.getInstance();
+        this.logger = FileLogger.getInstance();
+        this.index = PageIndex.empty(PAGE_SIZE);
+    }
+    
+    protected abstract Object getColumnValue(T row, int columnIndex);
+    
+    /**
+     * Called on the event dispatch thread with the row count after each refresh
+     */
+    void onRefreshed(IntConsumer refreshed) {
+        this.refreshed = refreshed;
+    }
+    
+    /**
+     * Reloads the page index in the background; cached pages are dropped once it arrives
+     */
+    void refresh(LoadStatusPanel statusPanel, String errorMessage) {
+        statusPanel.start(new IndexWorker(statusPanel, errorMessage), "Counting rows...");
+    }
+    
+    /**
+     * @return the row, or null while its page is still loading
+     */
+    T getRow(int rowIndex) {
+        int pageNumber = rowIndex / PAGE_SIZE;
+        wantedPage = pageNumber;
+        
+        List<T> page = pages.get(pageNumber);
+        if (page == null) {
+            requestPage(pageNumber);
+        }
+        for (int offset = 1; offset <= PREFETCH_PAGES; offset++) {
+            requestPage(pageNumber + offset);
+            requestPage(pageNumber - offset);
+        }
+        
+        int offsetInPage = rowIndex % PAGE_SIZE;
+        // A page can come back short if rows were deleted since the index was built
+        return page != null && offsetInPage < page.size() ? page.get(offsetInPage) : null;
+    }
+    
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+    
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        T row = getRow(rowIndex);
+        return row == null ? null : getColumnValue(row, columnIndex);
+    }
+    
+    private void requestPage(int pageNumber) {
+        if (pageNumber < 0 || pageNumber >= index.getPageCount() || pageNumber * PAGE_SIZE >= rowCount
+                || pendingPages.contains(pageNumber) || pages.get(pageNumber) != null) {
+            return;
+        }
+        
+        T after = index.getCursorBefore(pageNumber);
+        long stamp = pages.getStamp();
+        pendingPages.add(pageNumber);
+        asyncExecutor.submit(() -> isWanted(pageNumber) ? source.fetch(after, PAGE_SIZE) : null)
+            .whenCompleteAsync((page, error) -> pageLoaded(pageNumber, page, error, stamp), SwingUtilities::invokeLater);
+    }
+    
+    /**
+     * Pages queued while the scrollbar was dragged past them are not worth a query any more
+     */
+    private boolean isWanted(int pageNumber) {
+        return Math.abs(pageNumber - wantedPage) <= PREFETCH_PAGES + 1;
+    }
+    
+    private void pageLoaded(int pageNumber, Page<T> page, Throwable error, long stamp) {
+        if (stamp != pages.getStamp()) {
+            return; // Loaded against an index that has since been replaced
+        }
+        pendingPages.remove(pageNumber);
+        
+        if (error != null) {
+            logger.log("ERROR", "Failed to load table page {}: {}", pageNumber, error.getMessage());
+            return;
+        }
+        if (page == null || !pages.putIfUnchanged(pageNumber, page.getItems(), stamp)) {
+            return;
+        }
+        
+        int firstRow = pageNumber * PAGE_SIZE;
+        int lastRow = Math.min(rowCount, firstRow + PAGE_SIZE) - 1;
+        if (lastRow >= firstRow) {
+            fireTableRowsUpdated(firstRow, lastRow);
+        }
+    }
+    
+    private void applyIndex(PageIndex<T> newIndex) {
+        int oldRowCount = rowCount;
+        pages.clear();
+        pendingPages.clear();
+        index = newIndex;
+        rowCount = (int) Math.min(Integer.MAX_VALUE, newIndex.getTotalRows());
+        
+        // Row-range events only, so the table keeps its columns and scroll position
+        if (rowCount < oldRowCount) {
+            fireTableRowsDeleted(rowCount, oldRowCount - 1);
+        } else if (rowCount > oldRowCount) {
+            fireTableRowsInserted(oldRowCount, rowCount - 1);
+        }
+        int keptRows = Math.min(rowCount, oldRowCount);
+        if (keptRows > 0) {
+            fireTableRowsUpdated(0, keptRows - 1);
+        }
+    }
+    
+    private class IndexWorker extends SwingWorker<PageIndex<T>, Void> {
+        private final LoadStatusPanel statusPanel;
+        private final String errorMessage;
+        
+        IndexWorker(LoadStatusPanel statusPanel, String errorMessage) {
+            this.statusPanel = statusPanel;
+            this.errorMessage = errorMessage;
+        }
+        
+        @Override
+        protected PageIndex<T> doInBackground() throws Exception {
+            return source.loadIndex(PAGE_SIZE);
+        }
+        
+        @Override
+        protected void done() {
+            if (!statusPanel.isCurrent(this)) {
+                return;
+            }
+            if (isCancelled()) {
+                statusPanel.finish(this, "Cancelled");
+                return;
+            }
+            
+            try {
+                applyIndex(get());
+                statusPanel.finish(this, rowCount + " rows");
+                refreshed.accept(rowCount);
+            } catch (ExecutionException e) {
+                statusPanel.finish(this, "Load failed");
+                JOptionPane.showMessageDialog(SwingUtilities.getWindowAncestor(statusPanel),
+                    errorMessage + e.getCause().getMessage(),
+                    "Database Error", JOptionPane.ERROR_MESSAGE);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
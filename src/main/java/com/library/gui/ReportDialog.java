@@ -1,12 +1,15 @@
 package com.library.gui;
 
+import com.library.interfaces.StreamingReportGenerator.StreamingReport;
 import com.library.service.ReportService;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.InterruptedIOException;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Dialog for displaying reports
@@ -15,6 +18,9 @@ public class ReportDialog extends JDialog {
     private final ReportService reportService;
     private final String reportType;
     private JTextArea reportArea;
+    private LoadStatusPanel statusPanel;
+    private JButton refreshButton;
+    private JButton exportButton;
     
     public ReportDialog(Frame parent, ReportService reportService, String reportType) {
         super(parent, reportType, true);
@@ -43,11 +49,15 @@ public class ReportDialog extends JDialog {
         // Button panel
         JPanel buttonPanel = new JPanel(new FlowLayout());
         
-        JButton refreshButton = new JButton("Refresh");
-        JButton exportButton = new JButton("Export to File");
+        refreshButton = new JButton("Refresh");
+        exportButton = new JButton("Export to File");
         JButton closeButton = new JButton("Close");
         
-        refreshButton.addActionListener(e -> generateReport());
+        refreshButton.addActionListener(e -> {
+            // Refresh means rebuild, not replay the cached copy
+            reportService.discardCachedReports();
+            generateReport();
+        });
         exportButton.addActionListener(new ExportButtonListener());
         closeButton.addActionListener(e -> dispose());
         
@@ -55,40 +65,115 @@ public class ReportDialog extends JDialog {
         buttonPanel.add(exportButton);
         buttonPanel.add(closeButton);
         
+        statusPanel = new LoadStatusPanel();
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.add(statusPanel, BorderLayout.NORTH);
+        southPanel.add(buttonPanel, BorderLayout.SOUTH);
+        
         add(scrollPane, BorderLayout.CENTER);
-        add(buttonPanel, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
     }
     
     private void generateReport() {
-        try {
-            List<String> reportData = null;
-            
-            switch (reportType) {
-                case "Overdue Books Report":
-                    reportData = reportService.generateOverdueReport();
-                    break;
-                case "Book Popularity Report":
-                    reportData = reportService.generateBookPopularityReport();
-                    break;
-                case "Library Statistics Report":
-                    reportData = reportService.generateLibraryStatisticsReport();
-                    break;
-                default:
-                    reportData = List.of("Unknown report type: " + reportType);
+        StreamingReport report = selectReport();
+        if (report == null) {
+            reportArea.setText("Unknown report type: " + reportType + "\n");
+            return;
+        }
+        
+        reportArea.setText("");
+        // Starting an export would cancel the load, so it waits until the report is complete
+        exportButton.setEnabled(false);
+        statusPanel.start(new ReportWorker(report), "Generating report...");
+    }
+    
+    @Override
+    public void dispose() {
+        statusPanel.cancel();
+        super.dispose();
+    }
+    
+    /**
+     * @return the report for this dialog's type, or null if the type is unknown
+     */
+    private StreamingReport selectReport() {
+        switch (reportType) {
+            case "Overdue Books Report":
+                return reportService::writeOverdueReport;
+            case "Book Popularity Report":
+                return reportService::writeBookPopularityReport;
+            case "Library Statistics Report":
+                return reportService::writeLibraryStatisticsReport;
+            default:
+                return null;
+        }
+    }
+    
+    /**
+     * Wraps a report so it stops at the next line once the worker is cancelled
+     */
+    private static StreamingReport cancellable(StreamingReport report, SwingWorker<?, ?> worker) {
+        return sink -> report.writeTo(line -> {
+            if (worker.isCancelled()) {
+                throw new InterruptedIOException("Report cancelled");
             }
-            
-            StringBuilder reportText = new StringBuilder();
-            for (String line : reportData) {
-                reportText.append(line).append("\n");
+            sink.writeLine(line);
+        });
+    }
+    
+    /**
+     * Runs the report in the background and appends lines to the text area as they are written
+     */
+    private class ReportWorker extends SwingWorker<Void, String> {
+        private final StreamingReport report;
+        private int lines;
+        
+        ReportWorker(StreamingReport report) {
+            this.report = report;
+        }
+        
+        @Override
+        protected Void doInBackground() throws Exception {
+            cancellable(report, this).writeTo(this::publish);
+            return null;
+        }
+        
+        @Override
+        protected void process(List<String> chunk) {
+            if (isCancelled() || !statusPanel.isCurrent(this)) {
+                return;
+            }
+            for (String line : chunk) {
+                reportArea.append(line);
+                reportArea.append("\n");
+            }
+            lines += chunk.size();
+            statusPanel.showProgress(this, "Generating report... " + lines + " lines");
+        }
+        
+        @Override
+        protected void done() {
+            if (!statusPanel.isCurrent(this)) {
+                return;
+            }
+            exportButton.setEnabled(true);
+            if (isCancelled()) {
+                statusPanel.finish(this, "Cancelled after " + lines + " lines");
+                return;
             }
             
-            reportArea.setText(reportText.toString());
-            reportArea.setCaretPosition(0); // Scroll to top
-            
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this,
-                "Error generating report: " + e.getMessage(),
-                "Report Error", JOptionPane.ERROR_MESSAGE);
+            try {
+                get();
+                statusPanel.finish(this, "Report complete");
+                reportArea.setCaretPosition(0); // Scroll to top
+            } catch (ExecutionException e) {
+                statusPanel.finish(this, "Report failed");
+                JOptionPane.showMessageDialog(ReportDialog.this,
+                    "Error generating report: " + e.getCause().getMessage(),
+                    "Report Error", JOptionPane.ERROR_MESSAGE);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
         }
     }
     
@@ -103,21 +188,66 @@ public class ReportDialog extends JDialog {
             
             if (userSelection == JFileChooser.APPROVE_OPTION) {
                 java.io.File fileToSave = fileChooser.getSelectedFile();
-                
-                try {
-                    java.nio.file.Files.write(fileToSave.toPath(), 
-                        reportArea.getText().getBytes());
-                    
-                    JOptionPane.showMessageDialog(ReportDialog.this,
-                        "Report exported successfully to:\n" + fileToSave.getAbsolutePath(),
-                        "Export Success", JOptionPane.INFORMATION_MESSAGE);
-                        
-                } catch (Exception ex) {
-                    JOptionPane.showMessageDialog(ReportDialog.this,
-                        "Error exporting report: " + ex.getMessage(),
-                        "Export Error", JOptionPane.ERROR_MESSAGE);
+                StreamingReport report = selectReport();
+                if (report != null) {
+                    // Likewise a refresh would cancel the export
+                    refreshButton.setEnabled(false);
+                    exportButton.setEnabled(false);
+                    statusPanel.start(new ExportWorker(report, fileToSave), "Exporting report...");
                 }
             }
         }
     }
+    
+    /**
+     * Streams the report from the database straight to the file in the background
+     */
+    private class ExportWorker extends SwingWorker<Boolean, Void> {
+        private final StreamingReport report;
+        private final java.io.File file;
+        
+        ExportWorker(StreamingReport report, java.io.File file) {
+            this.report = report;
+            this.file = file;
+        }
+        
+        @Override
+        protected Boolean doInBackground() {
+            return reportService.exportReportToFile(cancellable(report, this), file.getAbsolutePath());
+        }
+        
+        @Override
+        protected void done() {
+            if (!statusPanel.isCurrent(this)) {
+                return;
+            }
+            refreshButton.setEnabled(true);
+            exportButton.setEnabled(true);
+            if (isCancelled()) {
+                statusPanel.finish(this, "Export cancelled");
+                return;
+            }
+            
+            boolean exported;
+            try {
+                exported = get();
+            } catch (ExecutionException e) {
+                exported = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            
+            statusPanel.finish(this, exported ? "Export complete" : "Export failed");
+            if (exported) {
+                JOptionPane.showMessageDialog(ReportDialog.this,
+                    "Report exported successfully to:\n" + file.getAbsolutePath(),
+                    "Export Success", JOptionPane.INFORMATION_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(ReportDialog.this,
+                    "Error exporting report to:\n" + file.getAbsolutePath(),
+                    "Export Error", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,126 @@
+package com.library.gui;
+
+import com.library.dao.Page;
+
+import javax.swing.*;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Loads table rows off the event dispatch thread.
+ * Pages are fetched in the background and each one is handed to the table model as it
+ * arrives, so the first rows show while the rest are still loading. The load stops
+ * between pages once cancelled.
+ */
+class TableLoader<T> extends SwingWorker<Integer, T> {
+    static final int PAGE_SIZE = 200;
+    
+    /**
+     * Fetches the page after the given row, or the first page when it is null
+     */
+    @FunctionalInterface
+    interface PageSource<T> {
+        Page<T> fetch(T after, int pageSize) throws Exception;
+    }
+    
+    private final PageSource<T> source;
+    private final LoadStatusPanel statusPanel;
+    private final Consumer<List<T>> rowsLoaded;
+    private final String errorMessage;
+    private Predicate<T> filter = row -> true;
+    private IntConsumer finished = rows -> { };
+    private int loadedRows;
+    
+    /**
+     * @param rowsLoaded appends rows to the table model, called on the event dispatch thread
+     * @param errorMessage prefix of the message shown if the load fails
+     */
+    TableLoader(PageSource<T> source, LoadStatusPanel statusPanel, Consumer<List<T>> rowsLoaded, String errorMessage) {
+        this.source = source;
+        this.statusPanel = statusPanel;
+        this.rowsLoaded = rowsLoaded;
+        this.errorMessage = errorMessage;
+    }
+    
+    /**
+     * Source for a service call that returns all rows at once
+     */
+    static <T> PageSource<T> allAtOnce(Callable<List<T>> query) {
+        return (after, pageSize) -> new Page<>(query.call(), false);
+    }
+    
+    /**
+     * Only rows accepted by the filter are shown; paging still follows the unfiltered rows
+     */
+    TableLoader<T> filter(Predicate<T> filter) {
+        this.filter = filter;
+        return this;
+    }
+    
+    /**
+     * Called on the event dispatch thread with the row count after a load that was not cancelled
+     */
+    TableLoader<T> onFinished(IntConsumer finished) {
+        this.finished = finished;
+        return this;
+    }
+    
+    void start() {
+        statusPanel.start(this, "Loading...");
+    }
+    
+    @Override
+    protected Integer doInBackground() throws Exception {
+        int rows = 0;
+        Page<T> page = null;
+        do {
+            page = source.fetch(page == null ? null : page.getLastItem(), PAGE_SIZE);
+            for (T row : page.getItems()) {
+                if (filter.test(row)) {
+                    publish(row);
+                    rows++;
+                }
+            }
+        } while (page.hasMore() && !isCancelled());
+        return rows;
+    }
+    
+    @Override
+    protected void process(List<T> chunk) {
+        // Chunks can still arrive after a cancel or a newer load has cleared the table
+        if (isCancelled() || !statusPanel.isCurrent(this)) {
+            return;
+        }
+        rowsLoaded.accept(chunk);
+        loadedRows += chunk.size();
+        statusPanel.showProgress(this, "Loading... " + loadedRows + " rows");
+    }
+    
+    @Override
+    protected void done() {
+        if (!statusPanel.isCurrent(this)) {
+            return;
+        }
+        if (isCancelled()) {
+            statusPanel.finish(this, "Cancelled after " + loadedRows + " rows");
+            return;
+        }
+        
+        try {
+            int rows = get();
+            statusPanel.finish(this, rows + " rows");
+            finished.accept(rows);
+        } catch (ExecutionException e) {
+            statusPanel.finish(this, "Load failed");
+            JOptionPane.showMessageDialog(SwingUtilities.getWindowAncestor(statusPanel),
+                errorMessage + e.getCause().getMessage(),
+                "Database Error", JOptionPane.ERROR_MESSAGE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
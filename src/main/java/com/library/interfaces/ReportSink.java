@@ -0,0 +1,15 @@
+package com.library.interfaces;
+
+import java.io.IOException;
+
+/**
+ * Destination for report lines, written as the report is generated
+ */
+@FunctionalInterface
+public interface ReportSink {
+    /**
+     * Write one line of the report
+     * @param line the line, without a line terminator
+     */
+    void writeLine(String line) throws IOException;
+}
@@ -0,0 +1,44 @@
+package com.library.interfaces;
+
+import java.io.IOException;
+
+/**
+ * Sink-based variant of ReportGenerator.
+ * Reports are pushed line by line from the database cursor to the sink,
+ * so memory use does not grow with the size of the report.
+ */
+public interface StreamingReportGenerator {
+    /**
+     * A report ready to be written, e.g. reportService::writeOverdueReport
+     */
+    @FunctionalInterface
+    interface StreamingReport {
+        void writeTo(ReportSink sink) throws IOException;
+    }
+    
+    /**
+     * Write the overdue books report
+     * @param sink receives each line as it is produced
+     */
+    void writeOverdueReport(ReportSink sink) throws IOException;
+    
+    /**
+     * Write the book popularity report, most borrowed first
+     * @param sink receives each line as it is produced
+     */
+    void writeBookPopularityReport(ReportSink sink) throws IOException;
+    
+    /**
+     * Write the library statistics report
+     * @param sink receives each line as it is produced
+     */
+    void writeLibraryStatisticsReport(ReportSink sink) throws IOException;
+    
+    /**
+     * Stream a report into a buffered file writer
+     * @param report the report to write
+     * @param filename the filename for the export
+     * @return true if export was successful
+     */
+    boolean exportReportToFile(StreamingReport report, String filename);
+}
@@ -34,6 +34,19 @@ public class Book implements Searchable {
         this.isActive = true;
     }
     
+    // Copy constructor
+    public Book(Book other) {
+        this.isbn = other.isbn;
+        this.title = other.title;
+        this.author = other.author;
+        this.category = other.category;
+        this.publisher = other.publisher;
+        this.publicationDate = other.publicationDate;
+        this.totalCopies = other.totalCopies;
+        this.availableCopies = other.availableCopies;
+        this.isActive = other.isActive;
+    }
+    
     // Implementation of Searchable interface
     @Override
     public boolean matches(String searchTerm) {
@@ -0,0 +1,43 @@
+package com.library.model;
+
+/**
+ * Borrow count for a single book, as produced by the popularity report query
+ */
+public class BookPopularity {
+    private final String isbn;
+    private final String title;
+    private final String author;
+    private final long borrowCount;
+    
+    public BookPopularity(String isbn, String title, String author, long borrowCount) {
+        this.isbn = isbn;
+        this.title = title;
+        this.author = author;
+        this.borrowCount = borrowCount;
+    }
+    
+    public String getIsbn() {
+        return isbn;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public String getAuthor() {
+        return author;
+    }
+    
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+    
+    @Override
+    public String toString() {
+        return "BookPopularity{" +
+                "isbn='" + isbn + '\'' +
+                ", title='" + title + '\'' +
+                ", borrowCount=" + borrowCount +
+                '}';
+    }
+}
@@ -12,13 +12,13 @@ public class BorrowRecord {
     private LocalDate borrowDate;
     private LocalDate dueDate;
     private LocalDate returnDate;
-    private String status; // BORROWED, RETURNED, OVERDUE
+    private String status; // a BorrowStatus name
     private double fineAmount;
     
     public BorrowRecord() {
         this.borrowDate = LocalDate.now();
         this.dueDate = LocalDate.now().plusDays(14); // 2 weeks borrowing period
-        this.status = "BORROWED";
+        this.status = BorrowStatus.BORROWED.name();
         this.fineAmount = 0.0;
     }
     
@@ -41,18 +41,26 @@ public class BorrowRecord {
         return 0;
     }
     
-    public double calculateFine() {
+    /**
+     * Recomputes the fine of a loan still open as if charged through today; a returned loan
+     * keeps its stored fine
+     * @param finePerDay the configured fine.rate.per.day, from OverdueService.getFinePerDay
+     */
+    public double calculateFine(double finePerDay) {
         if (isOverdue()) {
             long daysOverdue = getDaysOverdue();
-            fineAmount = daysOverdue * 0.50; // $0.50 per day fine
+            fineAmount = daysOverdue * finePerDay;
         }
         return fineAmount;
     }
     
+    /**
+     * Closes the loan. The fine charged is the stored fine amount, which OverdueService
+     * accrues day by day, so callers bring it current before reading the record.
+     */
     public void returnBook() {
         this.returnDate = LocalDate.now();
-        this.status = "RETURNED";
-        calculateFine();
+        this.status = BorrowStatus.RETURNED.name();
     }
     
     // Getters and setters
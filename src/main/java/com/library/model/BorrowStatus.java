@@ -0,0 +1,17 @@
+package com.library.model;
+
+/**
+ * Status of a borrow record, as stored in borrow_records.status
+ */
+public enum BorrowStatus {
+    BORROWED,
+    RETURNED,
+    OVERDUE;
+    
+    /**
+     * @return true while the book is still out
+     */
+    public boolean isOpen() {
+        return this != RETURNED;
+    }
+}
@@ -0,0 +1,109 @@
+package com.library.model;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only borrow record for reports that stream or hold many rows.
+ * Dates are epoch days, the fine is whole cents and the status an enum constant, so a
+ * row is one small object plus its ID strings instead of three LocalDates, a status
+ * String and a BorrowRecord. The LocalDate getters allocate; loops should use the epoch days.
+ */
+public final class CompactBorrowRecord {
+    /**
+     * Epoch day stored when the loan has not been returned
+     */
+    public static final int NOT_RETURNED = Integer.MIN_VALUE;
+    
+    private final String recordId;
+    private final String memberId;
+    private final String isbn;
+    private final int borrowEpochDay;
+    private final int dueEpochDay;
+    private final int returnEpochDay;
+    private final BorrowStatus status;
+    private final int fineCents;
+    
+    public CompactBorrowRecord(String recordId, String memberId, String isbn, int borrowEpochDay, int dueEpochDay,
+                               int returnEpochDay, BorrowStatus status, int fineCents) {
+        this.recordId = recordId;
+        this.memberId = memberId;
+        this.isbn = isbn;
+        this.borrowEpochDay = borrowEpochDay;
+        this.dueEpochDay = dueEpochDay;
+        this.returnEpochDay = returnEpochDay;
+        this.status = status;
+        this.fineCents = fineCents;
+    }
+    
+    public static int toFineCents(double fineAmount) {
+        return (int) Math.round(fineAmount * 100);
+    }
+    
+    public String getRecordId() {
+        return recordId;
+    }
+    
+    public String getMemberId() {
+        return memberId;
+    }
+    
+    public String getIsbn() {
+        return isbn;
+    }
+    
+    public int getBorrowEpochDay() {
+        return borrowEpochDay;
+    }
+    
+    public int getDueEpochDay() {
+        return dueEpochDay;
+    }
+    
+    /**
+     * @return the return day, or NOT_RETURNED
+     */
+    public int getReturnEpochDay() {
+        return returnEpochDay;
+    }
+    
+    public BorrowStatus getStatus() {
+        return status;
+    }
+    
+    public int getFineCents() {
+        return fineCents;
+    }
+    
+    public LocalDate getBorrowDate() {
+        return LocalDate.ofEpochDay(borrowEpochDay);
+    }
+    
+    public LocalDate getDueDate() {
+        return LocalDate.ofEpochDay(dueEpochDay);
+    }
+    
+    /**
+     * @return the return date, or null while the book is out
+     */
+    public LocalDate getReturnDate() {
+        return returnEpochDay != NOT_RETURNED ? LocalDate.ofEpochDay(returnEpochDay) : null;
+    }
+    
+    public double getFineAmount() {
+        return fineCents / 100.0;
+    }
+    
+    @Override
+    public String toString() {
+        return "CompactBorrowRecord{" +
+                "recordId='" + recordId + '\'' +
+                ", memberId='" + memberId + '\'' +
+                ", isbn='" + isbn + '\'' +
+                ", borrowDate=" + getBorrowDate() +
+                ", dueDate=" + getDueDate() +
+                ", returnDate=" + getReturnDate() +
+                ", status=" + status +
+                ", fineCents=" + fineCents +
+                '}';
+    }
+}
@@ -0,0 +1,65 @@
+package com.library.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Running totals of a bulk catalog import.
+ * Only the first rejections are kept in full; the rest are just counted.
+ */
+public class ImportResult {
+    private static final int MAX_REJECTION_MESSAGES = 100;
+    
+    private long rowsRead;
+    private long booksImported;
+    private long rejected;
+    private final List<String> rejections;
+    
+    public ImportResult() {
+        this.rejections = new ArrayList<>();
+    }
+    
+    public void rowRead() {
+        rowsRead++;
+    }
+    
+    public void booksImported(int count) {
+        booksImported += count;
+    }
+    
+    public void reject(long rowNumber, String reason) {
+        rejected++;
+        if (rejections.size() < MAX_REJECTION_MESSAGES) {
+            rejections.add("Row " + rowNumber + ": " + reason);
+        }
+    }
+    
+    public long getRowsRead() {
+        return rowsRead;
+    }
+    
+    /**
+     * @return books inserted or updated and committed so far
+     */
+    public long getBooksImported() {
+        return booksImported;
+    }
+    
+    public long getRejected() {
+        return rejected;
+    }
+    
+    public List<String> getRejections() {
+        return Collections.unmodifiableList(rejections);
+    }
+    
+    @Override
+    public String toString() {
+        return "ImportResult{" +
+                "rowsRead=" + rowsRead +
+                ", booksImported=" + booksImported +
+                ", rejected=" + rejected +
+                '}';
+    }
+}
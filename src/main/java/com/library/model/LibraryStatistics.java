@@ -0,0 +1,95 @@
+package com.library.model;
+
+import java.time.LocalDate;
+
+/**
+ * Snapshot of the library-wide counters kept in the library_stats table
+ */
+public class LibraryStatistics {
+    private final long activeBooks;
+    private final long availableBooks;
+    private final long distinctAuthors;
+    private final long distinctCategories;
+    private final long activeMembers;
+    private final long borrowRecords;
+    private final long activeBorrows;
+    private final long overdueBorrows;
+    private final LocalDate overdueCutoff;
+    
+    public LibraryStatistics(long activeBooks, long availableBooks, long distinctAuthors, long distinctCategories,
+                             long activeMembers, long borrowRecords, long activeBorrows, long overdueBorrows,
+                             LocalDate overdueCutoff) {
+        this.activeBooks = activeBooks;
+        this.availableBooks = availableBooks;
+        this.distinctAuthors = distinctAuthors;
+        this.distinctCategories = distinctCategories;
+        this.activeMembers = activeMembers;
+        this.borrowRecords = borrowRecords;
+        this.activeBorrows = activeBorrows;
+        this.overdueBorrows = overdueBorrows;
+        this.overdueCutoff = overdueCutoff;
+    }
+    
+    public long getActiveBooks() {
+        return activeBooks;
+    }
+    
+    /**
+     * Active titles with at least one copy on the shelf
+     */
+    public long getAvailableBooks() {
+        return availableBooks;
+    }
+    
+    public long getDistinctAuthors() {
+        return distinctAuthors;
+    }
+    
+    public long getDistinctCategories() {
+        return distinctCategories;
+    }
+    
+    public long getActiveMembers() {
+        return activeMembers;
+    }
+    
+    /**
+     * Borrow records of all time, returned or not
+     */
+    public long getBorrowRecords() {
+        return borrowRecords;
+    }
+    
+    public long getActiveBorrows() {
+        return activeBorrows;
+    }
+    
+    /**
+     * Active borrows due before the overdue cutoff
+     */
+    public long getOverdueBorrows() {
+        return overdueBorrows;
+    }
+    
+    /**
+     * Day the overdue count was last recomputed for
+     */
+    public LocalDate getOverdueCutoff() {
+        return overdueCutoff;
+    }
+    
+    @Override
+    public String toString() {
+        return "LibraryStatistics{" +
+                "activeBooks=" + activeBooks +
+                ", availableBooks=" + availableBooks +
+                ", distinctAuthors=" + distinctAuthors +
+                ", distinctCategories=" + distinctCategories +
+                ", activeMembers=" + activeMembers +
+                ", borrowRecords=" + borrowRecords +
+                ", activeBorrows=" + activeBorrows +
+                ", overdueBorrows=" + overdueBorrows +
+                ", overdueCutoff=" + overdueCutoff +
+                '}';
+    }
+}
@@ -29,6 +29,16 @@ public class Member extends Person implements Searchable {
         this.isActive = true;
     }
     
+    // Copy constructor
+    public Member(Member other) {
+        super(other.getId(), other.getFirstName(), other.getLastName(), other.getEmail(), other.getPhone());
+        setRegistrationDate(other.getRegistrationDate());
+        this.membershipType = other.membershipType;
+        this.membershipExpiry = other.membershipExpiry;
+        this.borrowedBooksCount = other.borrowedBooksCount;
+        this.isActive = other.isActive;
+    }
+    
     // Method overriding from Person class
     @Override
     public String getPersonType() {
@@ -0,0 +1,34 @@
+package com.library.model;
+
+/**
+ * An overdue borrow record joined with the title of the borrowed book
+ */
+public class OverdueLoan {
+    private final CompactBorrowRecord record;
+    private final String bookTitle;
+    
+    public OverdueLoan(CompactBorrowRecord record, String bookTitle) {
+        this.record = record;
+        this.bookTitle = bookTitle;
+    }
+    
+    public CompactBorrowRecord getRecord() {
+        return record;
+    }
+    
+    /**
+     * @return the book title, or null if the book no longer exists
+     */
+    public String getBookTitle() {
+        return bookTitle;
+    }
+    
+    @Override
+    public String toString() {
+        return "OverdueLoan{" +
+                "recordId='" + record.getRecordId() + '\'' +
+                ", bookTitle='" + bookTitle + '\'' +
+                ", dueDate=" + record.getDueDate() +
+                '}';
+    }
+}
@@ -1,24 +1,34 @@
 package com.library.service;
 
 import com.library.dao.BookDAO;
+import com.library.dao.Page;
+import com.library.dao.PageIndex;
 import com.library.model.Book;
 import com.library.exception.BookNotFoundException;
 import com.library.exception.DatabaseException;
+import com.library.util.AsyncExecutor;
+import com.library.util.DatabaseConnection;
 import com.library.util.FileLogger;
+import com.library.util.Transaction;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.Set;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 
 /**
  * Service class for Book-related business logic
  */
 public class BookService {
     private final BookDAO bookDAO;
+    private final DatabaseConnection dbConnection;
     private final FileLogger logger;
+    private final AsyncExecutor asyncExecutor;
     
     public BookService() {
         this.bookDAO = new BookDAO();
+        this.dbConnection = DatabaseConnection.getInstance();
         this.logger = FileLogger.getInstance();
+        this.asyncExecutor = AsyncExecutor.getInstance();
     }
     
     public void addBook(Book book) throws DatabaseException {
@@ -59,10 +69,34 @@ public class BookService {
         }
     }
     
+    public Page<Book> getBooksPage(Book after, int pageSize) throws DatabaseException {
+        try {
+            return bookDAO.findPage(after, pageSize);
+        } catch (DatabaseException e) {
+            logger.log("ERROR", "Failed to retrieve page of books: " + e.getMessage());
+            throw e;
+        }
+    }
+    
+    /**
+     * Row count and cursors for jumping straight to any page of getBooksPage
+     */
+    public PageIndex<Book> getBooksPageIndex(int pageSize) throws DatabaseException {
+        // The count and the cursors come from one snapshot, without blocking writers
+        try (Transaction transaction = dbConnection.beginReadTransaction()) {
+            PageIndex<Book> index = bookDAO.findPageIndex(pageSize);
+            transaction.commit();
+            return index;
+        } catch (DatabaseException e) {
+            logger.log("ERROR", "Failed to index pages of books: " + e.getMessage());
+            throw e;
+        }
+    }
+    
     public List<Book> searchBooks(String searchTerm) throws DatabaseException {
         try {
             List<Book> books = bookDAO.searchBooks(searchTerm);
-            logger.log("INFO", "Book search performed for: " + searchTerm + ", found " + books.size() + " results");
+            logger.log("INFO", "Book search performed for: {}, found {} results", searchTerm, books.size());
             return books;
         } catch (DatabaseException e) {
             logger.log("ERROR", "Failed to search books: " + e.getMessage());
@@ -70,6 +104,25 @@ public class BookService {
         }
     }
     
+    /**
+     * Top matches by rank, for search-as-you-type
+     */
+    public List<Book> searchBooks(String searchTerm, int limit) throws DatabaseException {
+        try {
+            return bookDAO.searchBooks(searchTerm, limit);
+        } catch (DatabaseException e) {
+            logger.log("ERROR", "Failed to search books: " + e.getMessage());
+            throw e;
+        }
+    }
+    
+    /**
+     * Whether a book would be found by searchBooks, checked without the database
+     */
+    public boolean matchesSearch(Book book, String searchTerm) {
+        return BookDAO.matchesSearch(book, searchTerm);
+    }
+    
     public void updateBook(Book book) throws BookNotFoundException, DatabaseException {
         try {
             // Verify book exists
@@ -113,12 +166,7 @@ public class BookService {
     
     public Set<String> getUniqueCategories() throws DatabaseException {
         try {
-            List<Book> books = bookDAO.findAll();
-            Set<String> categories = new HashSet<>();
-            for (Book book : books) {
-                categories.add(book.getCategory());
-            }
-            return categories;
+            return new LinkedHashSet<>(bookDAO.findCategories());
         } catch (DatabaseException e) {
             logger.log("ERROR", "Failed to retrieve categories: " + e.getMessage());
             throw e;
@@ -134,4 +182,43 @@ public class BookService {
             throw e;
         }
     }
+    
+    // Async counterparts, run on AsyncExecutor; futures fail with the same exceptions
+    
+    public CompletableFuture<Void> addBookAsync(Book book) {
+        return asyncExecutor.submit(() -> {
+            addBook(book);
+            return null;
+        });
+    }
+    
+    public CompletableFuture<Book> findBookByIsbnAsync(String isbn) {
+        return asyncExecutor.submit(() -> findBookByIsbn(isbn));
+    }
+    
+    public CompletableFuture<Page<Book>> getBooksPageAsync(Book after, int pageSize) {
+        return asyncExecutor.submit(() -> getBooksPage(after, pageSize));
+    }
+    
+    public CompletableFuture<List<Book>> searchBooksAsync(String searchTerm) {
+        return asyncExecutor.submit(() -> searchBooks(searchTerm));
+    }
+    
+    public CompletableFuture<Void> updateBookAsync(Book book) {
+        return asyncExecutor.submit(() -> {
+            updateBook(book);
+            return null;
+        });
+    }
+    
+    public CompletableFuture<Void> deleteBookAsync(String isbn) {
+        return asyncExecutor.submit(() -> {
+            deleteBook(isbn);
+            return null;
+        });
+    }
+    
+    public CompletableFuture<List<Book>> getAvailableBooksAsync() {
+        return asyncExecutor.submit(this::getAvailableBooks);
+    }
 }
@@ -0,0 +1,447 @@
+package com.library.service;
+
+import com.library.dao.BorrowHistoryDAO;
+import com.library.model.BorrowStatus;
+import com.library.exception.DatabaseException;
+import com.library.util.AsyncExecutor;
+import com.library.util.DatabaseConnection;
+import com.library.util.FileLogger;
+import com.library.util.StringDictionary;
+import com.library.util.Transaction;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Column-oriented copy of borrow_records kept in memory for the analytics reports.
+ * Each column is a primitive array indexed by position in rowid order; member IDs and
+ * ISBNs are encoded as dense ints by a StringDictionary. A group-by count is one pass over an int column
+ * into a counts array, so it takes milliseconds over millions of rows where the SQL
+ * GROUP BY scans the table. Large columns are split into row ranges counted on the
+ * fork-join pool and the partial counts summed.
+ *
+ * Every read first catches up in one deferred read transaction, which holds no write lock
+ * so checkouts carry on during the initial load: records with a higher rowid are
+ * appended, then status changes are replayed from borrow_status_log. If the log has been
+ * pruned past this copy, the store reloads. Borrow records are never deleted, and a VACUUM
+ * (which may renumber rowids) needs a restart.
+ *
+ * Appends go past the row count of every view already handed out and readers stay below
+ * it, so a read works on a consistent prefix without copying the columns. Status changes
+ * are the only writes inside that prefix; they go to a copy of the status column once a
+ * view shares it.
+ */
+public class BorrowHistoryStore {
+    // Log entries kept behind the newest, for other processes to catch up from
+    private static final long STATUS_LOG_RETENTION = 100_000;
+    private static final int INITIAL_CAPACITY = 1024;
+    // Below this many rows a range is counted by one thread
+    private static final int MIN_ROWS_PER_TASK = 1 << 16;
+    private static final BorrowStatus[] STATUSES = BorrowStatus.values();
+    
+    private static BorrowHistoryStore instance;
+    private final BorrowHistoryDAO historyDAO;
+    private final DatabaseConnection dbConnection;
+    private final FileLogger logger;
+    // Guarded by this; each read gets its own view
+    private Columns working;
+    private long lastRowId;
+    private long lastStatusChange;
+    
+    /**
+     * Row counts per member or per ISBN, with the dictionary to name each group
+     */
+    public static final class GroupCounts {
+        private final int[] counts;
+        private final StringDictionary keys;
+        
+        private GroupCounts(int[] counts, StringDictionary keys) {
+            this.counts = counts;
+            this.keys = keys;
+        }
+        
+        /**
+         * Number of groups; every group has at least one row
+         */
+        public int size() {
+            return counts.length;
+        }
+        
+        public String getKey(int group) {
+            return keys.decode(group);
+        }
+        
+        public int getCount(int group) {
+            return counts[group];
+        }
+        
+        /**
+         * @return the count for a key, 0 if it has no rows
+         */
+        public int getCount(String key) {
+            int code = keys.codeOf(key);
+            return code >= 0 && code < counts.length ? counts[code] : 0;
+        }
+        
+        /**
+         * Every group, most rows first, ties in group order. A counting sort over the counts,
+         * so it costs O(groups + largest count) and compares no keys.
+         */
+        public int[] byCountDescending() {
+            int largest = 0;
+            for (int count : counts) {
+                largest = Math.max(largest, count);
+            }
+            // starts[largest - count] is where the groups with that count begin
+            int[] starts = new int[largest + 2];
+            for (int count : counts) {
+                starts[largest - count + 1]++;
+            }
+            for (int i = 1; i < starts.length; i++) {
+                starts[i] += starts[i - 1];
+            }
+            int[] order = new int[counts.length];
+            for (int group = 0; group < counts.length; group++) {
+                order[starts[largest - counts[group]]++] = group;
+            }
+            return order;
+        }
+        
+        /**
+         * The k groups with the most rows, most first, ties broken by key.
+         * Kept in a bounded heap of group indices, so it costs O(groups log k).
+         */
+        public int[] topK(int k) {
+            int[] heap = new int[Math.min(k, counts.length)];
+            int heapSize = 0;
+            // The heap root is the weakest group kept so far
+            for (int group = 0; group < counts.length; group++) {
+                if (heapSize < heap.length) {
+                    heap[heapSize] = group;
+                    siftUp(heap, heapSize++);
+                } else if (heapSize > 0 && ranksAbove(group, heap[0])) {
+                    heap[0] = group;
+                    siftDown(heap, heapSize);
+                }
+            }
+            
+            int[] top = new int[heapSize];
+            for (int i = heapSize - 1; i >= 0; i--) {
+                top[i] = heap[0];
+                heap[0] = heap[i];
+                siftDown(heap, i);
+            }
+            return top;
+        }
+        
+        private boolean ranksAbove(int group, int other) {
+            if (counts[group] != counts[other]) {
+                return counts[group] > counts[other];
+            }
+            return keys.decode(group).compareTo(keys.decode(other)) < 0;
+        }
+        
+        private void siftUp(int[] heap, int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (!ranksAbove(heap[parent], heap[index])) {
+                    return;
+                }
+                swap(heap, parent, index);
+                index = parent;
+            }
+        }
+        
+        private void siftDown(int[] heap, int heapSize) {
+            int index = 0;
+            while (true) {
+                int weakest = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < heapSize && ranksAbove(heap[weakest], heap[left])) {
+                    weakest = left;
+                }
+                if (right < heapSize && ranksAbove(heap[weakest], heap[right])) {
+                    weakest = right;
+                }
+                if (weakest == index) {
+                    return;
+                }
+                swap(heap, weakest, index);
+                index = weakest;
+            }
+        }
+        
+        private static void swap(int[] heap, int i, int j) {
+            int tmp = heap[i];
+            heap[i] = heap[j];
+            heap[j] = tmp;
+        }
+    }
+    
+    /**
+     * The columns and dictionaries; a view copies only the counts and array references
+     */
+    private static final class Columns {
+        int rows;
+        long[] rowIds;
+        int[] members;
+        int[] isbns;
+        int[] borrowEpochDays;
+        int[] dueEpochDays;
+        byte[] statuses;
+        // Set once a view has the status column, which must then be copied before a change
+        boolean statusesShared;
+        // Dictionary sizes when the view was taken; later codes belong to rows it cannot see
+        int memberCount;
+        int isbnCount;
+        final StringDictionary memberIds;
+        final StringDictionary isbnValues;
+        
+        Columns() {
+            this.rowIds = new long[INITIAL_CAPACITY];
+            this.members = new int[INITIAL_CAPACITY];
+            this.isbns = new int[INITIAL_CAPACITY];
+            this.borrowEpochDays = new int[INITIAL_CAPACITY];
+            this.dueEpochDays = new int[INITIAL_CAPACITY];
+            this.statuses = new byte[INITIAL_CAPACITY];
+            this.memberIds = new StringDictionary();
+            this.isbnValues = new StringDictionary();
+        }
+        
+        private Columns(Columns source) {
+            this.rows = source.rows;
+            this.rowIds = source.rowIds;
+            this.members = source.members;
+            this.isbns = source.isbns;
+            this.borrowEpochDays = source.borrowEpochDays;
+            this.dueEpochDays = source.dueEpochDays;
+            this.statuses = source.statuses;
+            this.memberCount = source.memberIds.size();
+            this.isbnCount = source.isbnValues.size();
+            this.memberIds = source.memberIds;
+            this.isbnValues = source.isbnValues;
+        }
+        
+        Columns view() {
+            statusesShared = true;
+            return new Columns(this);
+        }
+        
+        void append(long rowId, String memberId, String isbn, int borrowEpochDay, int dueEpochDay, BorrowStatus status) {
+            if (rows == rowIds.length) {
+                int capacity = rows + (rows >> 1);
+                rowIds = Arrays.copyOf(rowIds, capacity);
+                members = Arrays.copyOf(members, capacity);
+                isbns = Arrays.copyOf(isbns, capacity);
+                borrowEpochDays = Arrays.copyOf(borrowEpochDays, capacity);
+                dueEpochDays = Arrays.copyOf(dueEpochDays, capacity);
+                statuses = Arrays.copyOf(statuses, capacity);
+                statusesShared = false;
+            }
+            rowIds[rows] = rowId;
+            members[rows] = memberIds.encode(memberId);
+            isbns[rows] = isbnValues.encode(isbn);
+            borrowEpochDays[rows] = borrowEpochDay;
+            dueEpochDays[rows] = dueEpochDay;
+            statuses[rows] = (byte) status.ordinal();
+            rows++;
+        }
+        
+        void setStatus(long rowId, BorrowStatus status) {
+            int position = Arrays.binarySearch(rowIds, 0, rows, rowId);
+            if (position >= 0) {
+                if (statusesShared) {
+                    statuses = statuses.clone();
+                    statusesShared = false;
+                }
+                statuses[position] = (byte) status.ordinal();
+            }
+        }
+    }
+    
+    private BorrowHistoryStore() {
+        this.historyDAO = new BorrowHistoryDAO();
+        this.dbConnection = DatabaseConnection.getInstance();
+        this.logger = FileLogger.getInstance();
+    }
+    
+    public static synchronized BorrowHistoryStore getInstance() {
+        if (instance == null) {
+            instance = new BorrowHistoryStore();
+        }
+        return instance;
+    }
+    
+    /**
+     * Starts the initial load in the background, so the first report does not wait for it
+     */
+    public void startLoading() {
+        AsyncExecutor.getInstance().submit(this::refresh);
+    }
+    
+    /**
+     * Borrow count per member ID
+     */
+    public GroupCounts countBorrowsByMember() throws DatabaseException {
+        Columns columns = refresh();
+        return new GroupCounts(countGroups(columns.members, columns.rows, columns.memberCount),
+            columns.memberIds);
+    }
+    
+    /**
+     * Borrow count per ISBN
+     */
+    public GroupCounts countBorrowsByIsbn() throws DatabaseException {
+        Columns columns = refresh();
+        return new GroupCounts(countGroups(columns.isbns, columns.rows, columns.isbnCount),
+            columns.isbnValues);
+    }
+    
+    /**
+     * Record count per status
+     */
+    public Map<BorrowStatus, Long> countBorrowsByStatus() throws DatabaseException {
+        Columns columns = refresh();
+        long[] counts = new long[STATUSES.length];
+        byte[] statuses = columns.statuses;
+        for (int i = 0; i < columns.rows; i++) {
+            counts[statuses[i]]++;
+        }
+        
+        Map<BorrowStatus, Long> byStatus = new EnumMap<>(BorrowStatus.class);
+        for (BorrowStatus status : STATUSES) {
+            byStatus.put(status, counts[status.ordinal()]);
+        }
+        return byStatus;
+    }
+    
+    /**
+     * Number of members who have ever borrowed; every dictionary entry has at least one row
+     */
+    public int countDistinctBorrowers() throws DatabaseException {
+        return refresh().memberCount;
+    }
+    
+    /**
+     * Splits the rows into about one range per core, the calling thread included,
+     * so only that many partial counts arrays are ever allocated
+     */
+    private static int[] countGroups(int[] codes, int rows, int groups) {
+        int ranges = ForkJoinPool.getCommonPoolParallelism() + 1;
+        int leafRows = Math.max(MIN_ROWS_PER_TASK, (rows + ranges - 1) / ranges);
+        return new GroupCountTask(codes, 0, rows, groups, leafRows).invoke();
+    }
+    
+    /**
+     * Counts the codes in [from, to) into a new array, forking the upper half of a large range
+     */
+    private static final class GroupCountTask extends RecursiveTask<int[]> {
+        private final int[] codes;
+        private final int from;
+        private final int to;
+        private final int groups;
+        private final int leafRows;
+        
+        GroupCountTask(int[] codes, int from, int to, int groups, int leafRows) {
+            this.codes = codes;
+            this.from = from;
+            this.to = to;
+            this.groups = groups;
+            this.leafRows = leafRows;
+        }
+        
+        @Override
+        protected int[] compute() {
+            int length = to - from;
+            // Merging two halves is a pass over every group, so a range with fewer rows is not split
+            if (length <= leafRows || length < groups) {
+                int[] counts = new int[groups];
+                for (int i = from; i < to; i++) {
+                    counts[codes[i]]++;
+                }
+                return counts;
+            }
+            
+            int middle = from + length / 2;
+            GroupCountTask upper = new GroupCountTask(codes, middle, to, groups, leafRows);
+            upper.fork();
+            int[] counts = new GroupCountTask(codes, from, middle, groups, leafRows).compute();
+            int[] upperCounts = upper.join();
+            for (int group = 0; group < groups; group++) {
+                counts[group] += upperCounts[group];
+            }
+            return counts;
+        }
+    }
+    
+    /**
+     * Catches up with the database and returns a view of the result
+     */
+    private synchronized Columns refresh() throws DatabaseException {
+        try (Transaction transaction = dbConnection.beginReadTransaction()) {
+            if (working == null || logPrunedPastUs()) {
+                reload();
+            } else {
+                catchUp();
+            }
+            transaction.commit();
+        } catch (DatabaseException e) {
+            logger.log("ERROR", "Failed to refresh borrow history: " + e.getMessage());
+            throw e;
+        }
+        pruneStatusLog();
+        return working.view();
+    }
+    
+    private boolean logPrunedPastUs() throws DatabaseException {
+        long firstKept = historyDAO.findFirstStatusChange();
+        if (firstKept == 0) {
+            return historyDAO.findLastStatusChange() > lastStatusChange;
+        }
+        return firstKept > lastStatusChange + 1;
+    }
+    
+    private void reload() throws DatabaseException {
+        long started = System.currentTimeMillis();
+        // Changes already in the log are reflected in the rows about to be read
+        lastStatusChange = historyDAO.findLastStatusChange();
+        lastRowId = 0;
+        working = new Columns();
+        appendNewRecords();
+        logger.log("INFO", "Borrow history loaded: {} records, {} members, {} ISBNs in {} ms",
+            working.rows, working.memberIds.size(), working.isbnValues.size(), System.currentTimeMillis() - started);
+    }
+    
+    private void catchUp() throws DatabaseException {
+        appendNewRecords();
+        // Rows appended above already have their current status; replaying is harmless
+        historyDAO.forEachStatusChangeAfter(lastStatusChange, working::setStatus);
+        lastStatusChange = historyDAO.findLastStatusChange();
+    }
+    
+    /**
+     * Trims the log to STATUS_LOG_RETENTION entries once it has grown to twice that.
+     * Runs outside the read transaction, so a busy database only postpones it.
+     */
+    private void pruneStatusLog() {
+        long pruneThrough = lastStatusChange - STATUS_LOG_RETENTION;
+        try {
+            if (pruneThrough > 0 && historyDAO.findFirstStatusChange() <= pruneThrough - STATUS_LOG_RETENTION) {
+                historyDAO.pruneStatusChanges(pruneThrough);
+            }
+        } catch (DatabaseException e) {
+            logger.log("WARNING", "Failed to prune borrow status log: " + e.getMessage());
+        }
+    }
+    
+    private void appendNewRecords() throws DatabaseException {
+        Columns columns = working;
+        historyDAO.forEachRecordAfter(lastRowId, columns::append);
+        if (columns.rows > 0) {
+            lastRowId = columns.rowIds[columns.rows - 1];
+        }
+    }
+}
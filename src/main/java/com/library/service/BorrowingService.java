@@ -3,14 +3,20 @@ package com.library.service;
 import com.library.dao.BookDAO;
 import com.library.dao.MemberDAO;
 import com.library.dao.BorrowRecordDAO;
-import com.library.model.Book;
+import com.library.dao.Page;
+import com.library.dao.PageIndex;
 import com.library.model.Member;
 import com.library.model.BorrowRecord;
+import com.library.model.BorrowStatus;
 import com.library.exception.BookNotFoundException;
 import com.library.exception.MemberNotFoundException;
 import com.library.exception.DatabaseException;
+import com.library.util.DatabaseConnection;
+import com.library.util.AsyncExecutor;
 import com.library.util.FileLogger;
+import com.library.util.Transaction;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.UUID;
 
 /**
@@ -20,17 +26,24 @@ public class BorrowingService {
     private final BookDAO bookDAO;
     private final MemberDAO memberDAO;
     private final BorrowRecordDAO borrowRecordDAO;
+    private final DatabaseConnection dbConnection;
+    private final OverdueService overdueService;
     private final FileLogger logger;
+    private final AsyncExecutor asyncExecutor;
     
     public BorrowingService() {
         this.bookDAO = new BookDAO();
         this.memberDAO = new MemberDAO();
         this.borrowRecordDAO = new BorrowRecordDAO();
+        this.dbConnection = DatabaseConnection.getInstance();
+        this.overdueService = OverdueService.getInstance();
         this.logger = FileLogger.getInstance();
+        this.asyncExecutor = AsyncExecutor.getInstance();
     }
     
     public BorrowRecord borrowBook(String memberId, String isbn) throws DatabaseException, BookNotFoundException, MemberNotFoundException {
-        try {
+        // All reads and writes share one connection and commit once
+        try (Transaction transaction = dbConnection.beginTransaction()) {
             // Validate member
             Member member = memberDAO.findById(memberId);
             if (member == null) {
@@ -41,14 +54,17 @@ public class BorrowingService {
                 throw new DatabaseException("Member cannot borrow books. Check membership status and borrowed book limit.");
             }
             
-            // Validate book
-            Book book = bookDAO.findByIsbn(isbn);
-            if (book == null) {
-                throw new BookNotFoundException("Book not found with ISBN: " + isbn);
+            // Take a copy with a guarded UPDATE; a concurrent desk cannot take the same last copy
+            if (!bookDAO.decrementAvailableCopies(isbn)) {
+                if (bookDAO.findByIsbn(isbn) == null) {
+                    throw new BookNotFoundException("Book not found with ISBN: " + isbn);
+                }
+                throw new DatabaseException("Book is not available for borrowing");
             }
             
-            if (!book.isAvailable()) {
-                throw new DatabaseException("Book is not available for borrowing");
+            // Update member's borrowed books count, re-checking the limit in the same statement
+            if (!memberDAO.incrementBorrowedBooksCount(memberId, member.getMaxBorrowLimit())) {
+                throw new DatabaseException("Member cannot borrow books. Check membership status and borrowed book limit.");
             }
             
             // Create borrow record
@@ -56,15 +72,9 @@ public class BorrowingService {
             BorrowRecord borrowRecord = new BorrowRecord(recordId, memberId, isbn);
             borrowRecordDAO.createBorrowRecord(borrowRecord);
             
-            // Update book availability
-            book.borrowBook();
-            bookDAO.updateBook(book);
-            
-            // Update member's borrowed books count
-            member.setBorrowedBooksCount(member.getBorrowedBooksCount() + 1);
-            memberDAO.updateMember(member);
-            
-            logger.log("INFO", "Book borrowed - Member: " + memberId + ", Book: " + isbn + ", Record: " + recordId);
+            transaction.commit();
+            overdueService.track(borrowRecord);
+            logger.log("INFO", "Book borrowed - Member: {}, Book: {}, Record: {}", memberId, isbn, recordId);
             return borrowRecord;
             
         } catch (DatabaseException | BookNotFoundException | MemberNotFoundException e) {
@@ -74,36 +84,34 @@ public class BorrowingService {
     }
     
     public BorrowRecord returnBook(String recordId) throws DatabaseException {
-        try {
+        // The return charges the stored fine, so accrue it through today first; this opens
+        // its own transaction, so it cannot run inside the one below
+        overdueService.ensureCurrent();
+        
+        try (Transaction transaction = dbConnection.beginTransaction()) {
             // Find borrow record
             BorrowRecord borrowRecord = borrowRecordDAO.findById(recordId);
             if (borrowRecord == null) {
                 throw new DatabaseException("Borrow record not found: " + recordId);
             }
             
-            if (!"BORROWED".equals(borrowRecord.getStatus())) {
+            if (BorrowStatus.RETURNED.name().equals(borrowRecord.getStatus())) {
                 throw new DatabaseException("Book has already been returned");
             }
             
-            // Calculate fine and update record
+            // Close the loan with the fine accrued so far; fails if another desk returned it first
             borrowRecord.returnBook();
-            borrowRecordDAO.updateBorrowRecord(borrowRecord);
-            
-            // Update book availability
-            Book book = bookDAO.findByIsbn(borrowRecord.getIsbn());
-            if (book != null) {
-                book.returnBook();
-                bookDAO.updateBook(book);
+            if (!borrowRecordDAO.markReturned(borrowRecord)) {
+                throw new DatabaseException("Book has already been returned");
             }
             
-            // Update member's borrowed books count
-            Member member = memberDAO.findById(borrowRecord.getMemberId());
-            if (member != null) {
-                member.setBorrowedBooksCount(Math.max(0, member.getBorrowedBooksCount() - 1));
-                memberDAO.updateMember(member);
-            }
+            // Update book availability and member's borrowed books count
+            bookDAO.incrementAvailableCopies(borrowRecord.getIsbn());
+            memberDAO.decrementBorrowedBooksCount(borrowRecord.getMemberId());
             
-            logger.log("INFO", "Book returned - Record: " + recordId + ", Fine: $" + borrowRecord.getFineAmount());
+            transaction.commit();
+            overdueService.untrack(borrowRecord);
+            logger.log("INFO", "Book returned - Record: {}, Fine: ${}", recordId, borrowRecord.getFineAmount());
             return borrowRecord;
             
         } catch (DatabaseException e) {
@@ -132,6 +140,7 @@ public class BorrowingService {
     
     public List<BorrowRecord> getOverdueRecords() throws DatabaseException {
         try {
+            overdueService.ensureCurrent();
             return borrowRecordDAO.findOverdueRecords();
         } catch (DatabaseException e) {
             logger.log("ERROR", "Failed to retrieve overdue records: " + e.getMessage());
@@ -148,6 +157,30 @@ public class BorrowingService {
         }
     }
     
+    public Page<BorrowRecord> getBorrowRecordsPage(BorrowRecord after, int pageSize) throws DatabaseException {
+        try {
+            return borrowRecordDAO.findPage(after, pageSize);
+        } catch (DatabaseException e) {
+            logger.log("ERROR", "Failed to retrieve page of borrow records: " + e.getMessage());
+            throw e;
+        }
+    }
+    
+    /**
+     * Row count and cursors for jumping straight to any page of getBorrowRecordsPage
+     */
+    public PageIndex<BorrowRecord> getBorrowRecordsPageIndex(int pageSize) throws DatabaseException {
+        // The count and the cursors come from one snapshot, without blocking writers
+        try (Transaction transaction = dbConnection.beginReadTransaction()) {
+            PageIndex<BorrowRecord> index = borrowRecordDAO.findPageIndex(pageSize);
+            transaction.commit();
+            return index;
+        } catch (DatabaseException e) {
+            logger.log("ERROR", "Failed to index pages of borrow records: " + e.getMessage());
+            throw e;
+        }
+    }
+    
     // Method overloading demonstration
     public double calculateTotalFines(String memberId) throws DatabaseException {
         List<BorrowRecord> records = getMemberBorrowHistory(memberId);
@@ -159,4 +192,30 @@ public class BorrowingService {
                 .mapToDouble(BorrowRecord::getFineAmount)
                 .sum();
     }
+    
+    // Async counterparts, run on AsyncExecutor; futures fail with the same exceptions
+    
+    public CompletableFuture<BorrowRecord> borrowBookAsync(String memberId, String isbn) {
+        return asyncExecutor.submit(() -> borrowBook(memberId, isbn));
+    }
+    
+    public CompletableFuture<BorrowRecord> returnBookAsync(String recordId) {
+        return asyncExecutor.submit(() -> returnBook(recordId));
+    }
+    
+    public CompletableFuture<List<BorrowRecord>> getMemberBorrowHistoryAsync(String memberId) {
+        return asyncExecutor.submit(() -> getMemberBorrowHistory(memberId));
+    }
+    
+    public CompletableFuture<List<BorrowRecord>> getMemberActiveBorrowsAsync(String memberId) {
+        return asyncExecutor.submit(() -> getMemberActiveBorrows(memberId));
+    }
+    
+    public CompletableFuture<List<BorrowRecord>> getOverdueRecordsAsync() {
+        return asyncExecutor.submit(this::getOverdueRecords);
+    }
+    
+    public CompletableFuture<Page<BorrowRecord>> getBorrowRecordsPageAsync(BorrowRecord after, int pageSize) {
+        return asyncExecutor.submit(() -> getBorrowRecordsPage(after, pageSize));
+    }
 }
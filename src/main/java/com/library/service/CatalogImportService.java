@@ -0,0 +1,236 @@
+package com.library.service;
+
+import com.library.dao.BookDAO;
+import com.library.model.Book;
+import com.library.model.ImportResult;
+import com.library.exception.LibraryException;
+import com.library.util.ConfigReader;
+import com.library.util.DatabaseConnection;
+import com.library.util.FileLogger;
+import com.library.util.Transaction;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Streams a CSV vendor feed into the catalog.
+ * The file is read one record at a time, invalid rows are rejected and counted,
+ * and valid rows are upserted by ISBN in batches of import.batch.size, committing
+ * every import.transaction.size rows. A failure only loses the uncommitted chunk.
+ *
+ * The first line must name the columns: isbn, title, author, category, publisher,
+ * publication_date (yyyy-MM-dd) and total_copies, in any order. Fields may be quoted.
+ */
+public class CatalogImportService {
+    private static final String[] REQUIRED_COLUMNS = {
+        "isbn", "title", "author", "category", "publisher", "publication_date", "total_copies"
+    };
+    private static final Pattern ISBN_PATTERN = Pattern.compile("[0-9][0-9-]{8,15}[0-9Xx]");
+    
+    private final BookDAO bookDAO;
+    private final DatabaseConnection dbConnection;
+    private final FileLogger logger;
+    private final int batchSize;
+    private final int transactionSize;
+    
+    public CatalogImportService() {
+        this.bookDAO = new BookDAO();
+        this.dbConnection = DatabaseConnection.getInstance();
+        this.logger = FileLogger.getInstance();
+        ConfigReader configReader = ConfigReader.getInstance();
+        this.batchSize = Math.max(1, configReader.getIntProperty("import.batch.size", 1000));
+        this.transactionSize = Math.max(batchSize, configReader.getIntProperty("import.transaction.size", 50000));
+    }
+    
+    /**
+     * @param progress called with the running totals after every commit, may be null
+     * @return the final totals
+     */
+    public ImportResult importBooks(Path file, Consumer<ImportResult> progress) throws LibraryException {
+        ImportResult result = new ImportResult();
+        logger.log("INFO", "Catalog import started: {}", file);
+        
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<String> header = readRecord(reader);
+            if (header == null) {
+                throw new LibraryException("Import file is empty: " + file, "IMPORT_ERROR");
+            }
+            Map<String, Integer> columns = mapColumns(header);
+            
+            List<Book> batch = new ArrayList<>(batchSize);
+            int uncommitted = 0;
+            long rowNumber = 1;
+            Transaction transaction = dbConnection.beginTransaction();
+            try {
+                List<String> fields;
+                while ((fields = readRecord(reader)) != null) {
+                    rowNumber++;
+                    result.rowRead();
+                    
+                    Book book = parseBook(fields, columns, rowNumber, result);
+                    if (book == null) {
+                        continue;
+                    }
+                    batch.add(book);
+                    if (batch.size() < batchSize) {
+                        continue;
+                    }
+                    
+                    bookDAO.upsertBooks(batch);
+                    uncommitted += batch.size();
+                    batch.clear();
+                    if (uncommitted >= transactionSize) {
+                        transaction.commit();
+                        transaction.close();
+                        result.booksImported(uncommitted);
+                        uncommitted = 0;
+                        reportProgress(result, progress);
+                        transaction = dbConnection.beginTransaction();
+                    }
+                }
+                
+                if (!batch.isEmpty()) {
+                    bookDAO.upsertBooks(batch);
+                    uncommitted += batch.size();
+                }
+                transaction.commit();
+                result.booksImported(uncommitted);
+                reportProgress(result, progress);
+            } finally {
+                transaction.close();
+            }
+        } catch (IOException e) {
+            logger.log("ERROR", "Catalog import failed: " + e.getMessage());
+            throw new LibraryException("Failed to read import file: " + e.getMessage(), "IMPORT_ERROR", e);
+        } catch (LibraryException e) {
+            logger.log("ERROR", "Catalog import failed after " + result.getBooksImported() + " books: " + e.getMessage());
+            throw e;
+        }
+        
+        logger.log("INFO", "Catalog import finished: {}", result);
+        return result;
+    }
+    
+    private void reportProgress(ImportResult result, Consumer<ImportResult> progress) {
+        logger.log("INFO", "Catalog import progress: {}", result);
+        if (progress != null) {
+            progress.accept(result);
+        }
+    }
+    
+    private Map<String, Integer> mapColumns(List<String> header) throws LibraryException {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new LibraryException("Import file is missing column: " + column, "IMPORT_ERROR");
+            }
+        }
+        return columns;
+    }
+    
+    /**
+     * @return the book, or null after recording why the row was rejected
+     */
+    private Book parseBook(List<String> fields, Map<String, Integer> columns, long rowNumber, ImportResult result) {
+        String isbn = field(fields, columns, "isbn");
+        String title = field(fields, columns, "title");
+        String author = field(fields, columns, "author");
+        String category = field(fields, columns, "category");
+        String publisher = field(fields, columns, "publisher");
+        String publicationDate = field(fields, columns, "publication_date");
+        String totalCopies = field(fields, columns, "total_copies");
+        
+        if (isbn.isEmpty() || title.isEmpty() || author.isEmpty() || category.isEmpty() || publisher.isEmpty()) {
+            result.reject(rowNumber, "missing required field");
+            return null;
+        }
+        if (!ISBN_PATTERN.matcher(isbn).matches()) {
+            result.reject(rowNumber, "invalid ISBN '" + isbn + "'");
+            return null;
+        }
+        
+        try {
+            int copies = Integer.parseInt(totalCopies);
+            if (copies < 1) {
+                result.reject(rowNumber, "total_copies must be at least 1");
+                return null;
+            }
+            return new Book(isbn, title, author, category, publisher, LocalDate.parse(publicationDate), copies);
+        } catch (NumberFormatException e) {
+            result.reject(rowNumber, "invalid total_copies '" + totalCopies + "'");
+        } catch (DateTimeParseException e) {
+            result.reject(rowNumber, "invalid publication_date '" + publicationDate + "'");
+        }
+        return null;
+    }
+    
+    private String field(List<String> fields, Map<String, Integer> columns, String column) {
+        int index = columns.get(column);
+        return index < fields.size() ? fields.get(index).trim() : "";
+    }
+    
+    /**
+     * Reads one CSV record; a quoted field may contain commas, doubled quotes and line breaks.
+     * @return the fields, or null at end of file
+     */
+    private List<String> readRecord(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        while (line != null && line.isBlank()) {
+            line = reader.readLine();
+        }
+        if (line == null) {
+            return null;
+        }
+        
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            
+            if (!quoted) {
+                break;
+            }
+            line = reader.readLine();
+            if (line == null) {
+                break;
+            }
+            field.append('\n');
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
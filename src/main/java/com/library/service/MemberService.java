@@ -1,24 +1,32 @@
 package com.library.service;
 
 import com.library.dao.MemberDAO;
+import com.library.dao.Page;
+import com.library.dao.ReportDAO;
 import com.library.model.Member;
 import com.library.exception.MemberNotFoundException;
 import com.library.exception.DatabaseException;
+import com.library.util.AsyncExecutor;
 import com.library.util.FileLogger;
+import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.Map;
-import java.util.HashMap;
 
 /**
  * Service class for Member-related business logic
  */
 public class MemberService {
     private final MemberDAO memberDAO;
+    private final ReportDAO reportDAO;
     private final FileLogger logger;
+    private final AsyncExecutor asyncExecutor;
     
     public MemberService() {
         this.memberDAO = new MemberDAO();
+        this.reportDAO = new ReportDAO();
         this.logger = FileLogger.getInstance();
+        this.asyncExecutor = AsyncExecutor.getInstance();
     }
     
     public void registerMember(Member member) throws DatabaseException {
@@ -59,10 +67,28 @@ public class MemberService {
         }
     }
     
+    public Page<Member> getMembersPage(Member after, int pageSize) throws DatabaseException {
+        try {
+            return memberDAO.findPage(after, pageSize);
+        } catch (DatabaseException e) {
+            logger.log("ERROR", "Failed to retrieve page of members: " + e.getMessage());
+            throw e;
+        }
+    }
+    
+    public Page<Member> searchMembersPage(String searchTerm, Member after, int pageSize) throws DatabaseException {
+        try {
+            return memberDAO.searchPage(searchTerm, after, pageSize);
+        } catch (DatabaseException e) {
+            logger.log("ERROR", "Failed to search members: " + e.getMessage());
+            throw e;
+        }
+    }
+    
     public List<Member> searchMembers(String searchTerm) throws DatabaseException {
         try {
             List<Member> members = memberDAO.searchMembers(searchTerm);
-            logger.log("INFO", "Member search performed for: " + searchTerm + ", found " + members.size() + " results");
+            logger.log("INFO", "Member search performed for: {}, found {} results", searchTerm, members.size());
             return members;
         } catch (DatabaseException e) {
             logger.log("ERROR", "Failed to search members: " + e.getMessage());
@@ -70,6 +96,25 @@ public class MemberService {
         }
     }
     
+    /**
+     * Top matches by rank, for search-as-you-type
+     */
+    public List<Member> searchMembers(String searchTerm, int limit) throws DatabaseException {
+        try {
+            return memberDAO.searchMembers(searchTerm, limit);
+        } catch (DatabaseException e) {
+            logger.log("ERROR", "Failed to search members: " + e.getMessage());
+            throw e;
+        }
+    }
+    
+    /**
+     * Whether a member would be found by searchMembers, checked without the database
+     */
+    public boolean matchesSearch(Member member, String searchTerm) {
+        return MemberDAO.matchesSearch(member, searchTerm);
+    }
+    
     public void updateMember(Member member) throws MemberNotFoundException, DatabaseException {
         try {
             // Verify member exists
@@ -114,18 +159,52 @@ public class MemberService {
     
     public Map<String, Integer> getMembershipTypeStats() throws DatabaseException {
         try {
-            List<Member> members = memberDAO.findAll();
+            // Same GROUP BY as the member activity report
             Map<String, Integer> stats = new HashMap<>();
-            
-            for (Member member : members) {
-                String type = member.getMembershipType();
-                stats.put(type, stats.getOrDefault(type, 0) + 1);
-            }
-            
+            reportDAO.countActiveMembersByType().forEach((type, count) -> stats.put(type, count.intValue()));
             return stats;
         } catch (DatabaseException e) {
             logger.log("ERROR", "Failed to generate membership stats: " + e.getMessage());
             throw e;
         }
     }
+    
+    // Async counterparts, run on AsyncExecutor; futures fail with the same exceptions
+    
+    public CompletableFuture<Void> registerMemberAsync(Member member) {
+        return asyncExecutor.submit(() -> {
+            registerMember(member);
+            return null;
+        });
+    }
+    
+    public CompletableFuture<Member> findMemberByIdAsync(String id) {
+        return asyncExecutor.submit(() -> findMemberById(id));
+    }
+    
+    public CompletableFuture<Page<Member>> getMembersPageAsync(Member after, int pageSize) {
+        return asyncExecutor.submit(() -> getMembersPage(after, pageSize));
+    }
+    
+    public CompletableFuture<Page<Member>> searchMembersPageAsync(String searchTerm, Member after, int pageSize) {
+        return asyncExecutor.submit(() -> searchMembersPage(searchTerm, after, pageSize));
+    }
+    
+    public CompletableFuture<List<Member>> searchMembersAsync(String searchTerm) {
+        return asyncExecutor.submit(() -> searchMembers(searchTerm));
+    }
+    
+    public CompletableFuture<Void> updateMemberAsync(Member member) {
+        return asyncExecutor.submit(() -> {
+            updateMember(member);
+            return null;
+        });
+    }
+    
+    public CompletableFuture<Void> deleteMemberAsync(String id) {
+        return asyncExecutor.submit(() -> {
+            deleteMember(id);
+            return null;
+        });
+    }
 }
@@ -0,0 +1,237 @@
+package com.library.service;
+
+import com.library.dao.BorrowRecordDAO;
+import com.library.model.BorrowRecord;
+import com.library.exception.DatabaseException;
+import com.library.util.ConfigReader;
+import com.library.util.DatabaseConnection;
+import com.library.util.FileLogger;
+import com.library.util.Transaction;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves loans to OVERDUE as their due date passes and accrues their fines.
+ * Open loans wait in a due-date-ordered queue of one bucket per day, loaded once from the
+ * database and kept current as this process lends and takes back books. At each date
+ * boundary the buckets now past due are flagged with one batched update each, and loans
+ * already OVERDUE are charged fine.rate.per.day for every day since the last boundary.
+ * Overdue listings then read the stored status and fine instead of comparing dates.
+ *
+ * Loans lent by another process are caught at the same boundary by a range query on
+ * (status, due_date), which after the queue has been flagged only finds those. Loans
+ * another process takes back are skipped by the update's status guard.
+ */
+public class OverdueService {
+    private static OverdueService instance;
+    private final BorrowRecordDAO borrowRecordDAO;
+    private final DatabaseConnection dbConnection;
+    private final FileLogger logger;
+    private final double finePerDay;
+    private final long checkIntervalMillis;
+    // Record IDs of open loans not yet flagged, by due date; guarded by this
+    private final TreeMap<LocalDate, Set<String>> loansByDueDate;
+    private boolean loaded;
+    private volatile LocalDate processedThrough;
+    private ScheduledExecutorService scheduler;
+    
+    private OverdueService() {
+        this.borrowRecordDAO = new BorrowRecordDAO();
+        this.dbConnection = DatabaseConnection.getInstance();
+        this.logger = FileLogger.getInstance();
+        ConfigReader configReader = ConfigReader.getInstance();
+        this.finePerDay = readFineRate(configReader);
+        this.checkIntervalMillis = TimeUnit.MINUTES.toMillis(
+            Math.max(1, configReader.getIntProperty("overdue.check.interval.minutes", 60)));
+        this.loansByDueDate = new TreeMap<>();
+    }
+    
+    public static synchronized OverdueService getInstance() {
+        if (instance == null) {
+            instance = new OverdueService();
+        }
+        return instance;
+    }
+    
+    /**
+     * The fine.rate.per.day charged here. A return charges the fine accrued so far,
+     * so this is only needed to estimate an open loan's fine with BorrowRecord.calculateFine
+     */
+    public double getFinePerDay() {
+        return finePerDay;
+    }
+    
+    /**
+     * Queues a loan this process has just lent; call once the borrow has committed.
+     * Before the queue is loaded there is nothing to do, the load will read the loan.
+     */
+    public synchronized void track(BorrowRecord record) {
+        if (loaded) {
+            loansByDueDate.computeIfAbsent(record.getDueDate(), dueDate -> new HashSet<>()).add(record.getRecordId());
+        }
+    }
+    
+    /**
+     * Drops a loan this process has just taken back; call once the return has committed
+     */
+    public synchronized void untrack(BorrowRecord record) {
+        Set<String> bucket = loansByDueDate.get(record.getDueDate());
+        if (bucket != null && bucket.remove(record.getRecordId()) && bucket.isEmpty()) {
+            loansByDueDate.remove(record.getDueDate());
+        }
+    }
+    
+    /**
+     * Processes today's boundary unless this process already has; otherwise only a date check.
+     * Overdue listings call it first, so a check that has not fired yet cannot hide a loan.
+     */
+    public void ensureCurrent() throws DatabaseException {
+        LocalDate today = LocalDate.now();
+        if (processedThrough == null || processedThrough.isBefore(today)) {
+            processBoundary(today);
+        }
+    }
+    
+    private synchronized void processBoundary(LocalDate today) throws DatabaseException {
+        if (today.equals(processedThrough)) {
+            // Another caller processed it while this one waited
+            return;
+        }
+        
+        try {
+            if (!loaded) {
+                loadQueue();
+            }
+            
+            NavigableMap<LocalDate, Set<String>> due = loansByDueDate.headMap(today, false);
+            Map<LocalDate, Set<String>> lentElsewhere = new TreeMap<>();
+            int charged = 0;
+            int flagged = 0;
+            try (Transaction transaction = dbConnection.beginTransaction()) {
+                // Charge the loans already OVERDUE before flagging more, so no loan pays twice for a day
+                LocalDate accruedThrough = borrowRecordDAO.findFinesAccruedThrough();
+                if ((accruedThrough == null || accruedThrough.isBefore(today))
+                        && borrowRecordDAO.advanceFinesAccruedThrough(accruedThrough, today)
+                        && accruedThrough != null) {
+                    charged = borrowRecordDAO.accrueFines(ChronoUnit.DAYS.between(accruedThrough, today) * finePerDay);
+                }
+                
+                // A newly flagged loan owes every day since it fell due
+                for (Map.Entry<LocalDate, Set<String>> bucket : due.entrySet()) {
+                    flagged += borrowRecordDAO.markOverdue(bucket.getValue(), fineFor(bucket.getKey(), today));
+                }
+                borrowRecordDAO.forEachBorrowedLoan(today, loan ->
+                    lentElsewhere.computeIfAbsent(loan.getDueDate(), dueDate -> new HashSet<>()).add(loan.getRecordId()));
+                for (Map.Entry<LocalDate, Set<String>> bucket : lentElsewhere.entrySet()) {
+                    flagged += borrowRecordDAO.markOverdue(bucket.getValue(), fineFor(bucket.getKey(), today));
+                }
+                
+                transaction.commit();
+            }
+            
+            due.clear();
+            processedThrough = today;
+            logger.log("INFO", "Overdue check for {}: {} loans flagged, {} overdue loans charged, {} loans queued",
+                today, flagged, charged, queuedLoans());
+        } catch (DatabaseException e) {
+            logger.log("ERROR", "Failed to process overdue loans: " + e.getMessage());
+            throw e;
+        }
+    }
+    
+    private void loadQueue() throws DatabaseException {
+        loansByDueDate.clear();
+        borrowRecordDAO.forEachBorrowedLoan(null, loan ->
+            loansByDueDate.computeIfAbsent(loan.getDueDate(), dueDate -> new HashSet<>()).add(loan.getRecordId()));
+        loaded = true;
+        logger.log("INFO", "Overdue queue loaded: {} loans over {} due dates", queuedLoans(), loansByDueDate.size());
+    }
+    
+    private int queuedLoans() {
+        int loans = 0;
+        for (Set<String> bucket : loansByDueDate.values()) {
+            loans += bucket.size();
+        }
+        return loans;
+    }
+    
+    private double fineFor(LocalDate dueDate, LocalDate today) {
+        return ChronoUnit.DAYS.between(dueDate, today) * finePerDay;
+    }
+    
+    /**
+     * Processes the current boundary now, then again at each midnight; a no-op if already started.
+     * Also wakes every overdue.check.interval.minutes, so a clock change or a suspended machine
+     * delays flagging by at most one interval.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "library-overdue-engine");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.execute(this::runScheduledCheck);
+    }
+    
+    private void runScheduledCheck() {
+        try {
+            ensureCurrent();
+        } catch (DatabaseException e) {
+            // Already logged; try again at the next check
+        }
+        scheduleNextCheck();
+    }
+    
+    private synchronized void scheduleNextCheck() {
+        if (scheduler == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        long untilMidnight = Duration.between(now, now.toLocalDate().plusDays(1).atStartOfDay()).toMillis();
+        scheduler.schedule(this::runScheduledCheck, Math.min(untilMidnight, checkIntervalMillis), TimeUnit.MILLISECONDS);
+    }
+    
+    public void shutdown() {
+        ScheduledExecutorService running;
+        synchronized (this) {
+            running = scheduler;
+            scheduler = null;
+        }
+        if (running == null) {
+            return;
+        }
+        // Let a check in progress commit before the connections close
+        running.shutdown();
+        try {
+            if (!running.awaitTermination(5, TimeUnit.SECONDS)) {
+                running.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            running.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private double readFineRate(ConfigReader configReader) {
+        String rate = configReader.getProperty("fine.rate.per.day", "0.50");
+        try {
+            return Double.parseDouble(rate);
+        } catch (NumberFormatException e) {
+            logger.log("WARNING", "Invalid fine.rate.per.day '{}', using 0.50", rate);
+            return 0.50;
+        }
+    }
+}
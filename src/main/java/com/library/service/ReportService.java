@@ -1,89 +1,123 @@
 package com.library.service;
 
 import com.library.interfaces.ReportGenerator;
-import com.library.dao.BorrowRecordDAO;
-import com.library.dao.BookDAO;
-import com.library.dao.MemberDAO;
-import com.library.model.BorrowRecord;
-import com.library.model.Book;
-import com.library.model.Member;
+import com.library.interfaces.ReportSink;
+import com.library.interfaces.StreamingReportGenerator;
+import com.library.dao.ReportDAO;
+import com.library.model.BookPopularity;
+import com.library.model.CompactBorrowRecord;
+import com.library.model.LibraryStatistics;
 import com.library.exception.DatabaseException;
+import com.library.util.AsyncExecutor;
+import com.library.util.CacheManager;
 import com.library.util.FileLogger;
+import com.library.util.ReportCache;
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Service class implementing ReportGenerator interface
  * Handles all reporting functionality in the system
+ * The streaming reports are served from ReportCache when a recent copy is there
  */
-public class ReportService implements ReportGenerator {
-    private final BorrowRecordDAO borrowRecordDAO;
-    private final BookDAO bookDAO;
-    private final MemberDAO memberDAO;
+public class ReportService implements ReportGenerator, StreamingReportGenerator {
+    private static final String OVERDUE_REPORT = "overdue";
+    private static final String BOOK_POPULARITY_REPORT = "book-popularity";
+    private static final String LIBRARY_STATISTICS_REPORT = "library-statistics";
+    
+    private final ReportDAO reportDAO;
+    private final StatisticsService statisticsService;
+    private final OverdueService overdueService;
+    private final BorrowHistoryStore historyStore;
     private final FileLogger logger;
+    private final AsyncExecutor asyncExecutor;
+    private final ReportCache reportCache;
+    
+    /**
+     * Writes a whole report, header included
+     */
+    @FunctionalInterface
+    private interface ReportBody {
+        /**
+         * @return false if a database error cut the report short; the error has been written and logged
+         */
+        boolean writeTo(ReportSink sink) throws IOException;
+    }
     
     public ReportService() {
-        this.borrowRecordDAO = new BorrowRecordDAO();
-        this.bookDAO = new BookDAO();
-        this.memberDAO = new MemberDAO();
+        this.reportDAO = new ReportDAO();
+        this.statisticsService = StatisticsService.getInstance();
+        this.overdueService = OverdueService.getInstance();
+        this.historyStore = BorrowHistoryStore.getInstance();
         this.logger = FileLogger.getInstance();
+        this.asyncExecutor = AsyncExecutor.getInstance();
+        this.reportCache = CacheManager.getInstance().getReportCache();
     }
     
     @Override
     public List<String> generateOverdueReport() {
-        List<String> report = new ArrayList<>();
-        report.add("=== OVERDUE BOOKS REPORT ===");
-        report.add("Generated on: " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
-        report.add("");
+        return collect(this::writeOverdueReport);
+    }
+    
+    @Override
+    public void writeOverdueReport(ReportSink sink) throws IOException {
+        writeCached(OVERDUE_REPORT, this::buildOverdueReport, sink);
+    }
+    
+    private boolean buildOverdueReport(ReportSink sink) throws IOException {
+        sink.writeLine("=== OVERDUE BOOKS REPORT ===");
+        sink.writeLine("Generated on: " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+        sink.writeLine("");
         
         try {
-            List<BorrowRecord> overdueRecords = borrowRecordDAO.findOverdueRecords();
+            overdueService.ensureCurrent();
             
-            if (overdueRecords.isEmpty()) {
-                report.add("No overdue books found.");
-            } else {
-                report.add(String.format("%-15s %-20s %-15s %-12s %-10s", 
-                    "Member ID", "Book Title", "ISBN", "Due Date", "Fine"));
-                report.add("-".repeat(80));
+            // Header is written with the first row, so an empty report can say so instead
+            // Fines are summed in whole cents so the total is exact
+            long[] rows = {0};
+            long[] totalFineCents = {0};
+            reportDAO.forEachOverdueLoan(loan -> {
+                if (rows[0]++ == 0) {
+                    sink.writeLine(String.format("%-15s %-20s %-15s %-12s %-10s", 
+                        "Member ID", "Book Title", "ISBN", "Due Date", "Fine"));
+                    sink.writeLine("-".repeat(80));
+                }
                 
-                for (BorrowRecord record : overdueRecords) {
-                    try {
-                        Book book = bookDAO.findByIsbn(record.getIsbn());
-                        String title = book != null ? book.getTitle() : "Unknown";
-                        if (title.length() > 18) {
-                            title = title.substring(0, 18) + "..";
-                        }
-                        
-                        record.calculateFine(); // Update fine calculation
-                        
-                        report.add(String.format("%-15s %-20s %-15s %-12s $%-9.2f", 
-                            record.getMemberId(),
-                            title,
-                            record.getIsbn(),
-                            record.getDueDate().toString(),
-                            record.getFineAmount()));
-                    } catch (DatabaseException e) {
-                        logger.log("ERROR", "Error processing overdue record: " + e.getMessage());
-                    }
+                CompactBorrowRecord record = loan.getRecord();
+                String title = loan.getBookTitle() != null ? loan.getBookTitle() : "Unknown";
+                if (title.length() > 18) {
+                    title = title.substring(0, 18) + "..";
                 }
                 
-                double totalFines = overdueRecords.stream()
-                    .mapToDouble(BorrowRecord::getFineAmount)
-                    .sum();
-                report.add("-".repeat(80));
-                report.add(String.format("Total Outstanding Fines: $%.2f", totalFines));
+                totalFineCents[0] += record.getFineCents(); // Accrued daily by OverdueService
+                
+                sink.writeLine(String.format("%-15s %-20s %-15s %-12s $%-9.2f", 
+                    record.getMemberId(),
+                    title,
+                    record.getIsbn(),
+                    record.getDueDate().toString(),
+                    record.getFineAmount()));
+            });
+            
+            if (rows[0] == 0) {
+                sink.writeLine("No overdue books found.");
+            } else {
+                sink.writeLine("-".repeat(80));
+                sink.writeLine(String.format("Total Outstanding Fines: $%.2f", totalFineCents[0] / 100.0));
             }
+            return true;
         } catch (DatabaseException e) {
-            report.add("Error generating overdue report: " + e.getMessage());
+            sink.writeLine("Error generating overdue report: " + e.getMessage());
             logger.log("ERROR", "Failed to generate overdue report: " + e.getMessage());
+            return false;
         }
-        
-        return report;
     }
     
     @Override
@@ -91,38 +125,32 @@ public class ReportService implements ReportGenerator {
         Map<String, Object> report = new HashMap<>();
         
         try {
-            List<Member> allMembers = memberDAO.findAll();
-            List<BorrowRecord> allRecords = borrowRecordDAO.findAll();
+            // Independent sections run concurrently, each on its own pooled connection,
+            // while this thread counts borrows in memory
+            CompletableFuture<LibraryStatistics> snapshot = asyncExecutor.submitSection(statisticsService::getStatistics);
+            CompletableFuture<Map<String, Long>> typeDistribution = asyncExecutor.submitSection(reportDAO::countActiveMembersByType);
+            BorrowHistoryStore.GroupCounts borrowsByMember = historyStore.countBorrowsByMember();
+            LibraryStatistics statistics = awaitSection(snapshot);
             
             // Total members
-            report.put("totalMembers", allMembers.size());
+            report.put("totalMembers", (int) statistics.getActiveMembers());
             
             // Active members (those who have borrowed books)
-            Set<String> activeMembers = allRecords.stream()
-                .map(BorrowRecord::getMemberId)
-                .collect(Collectors.toSet());
-            report.put("activeMembers", activeMembers.size());
+            report.put("activeMembers", borrowsByMember.size());
             
             // Membership type distribution
-            Map<String, Long> membershipTypes = allMembers.stream()
-                .collect(Collectors.groupingBy(Member::getMembershipType, Collectors.counting()));
-            report.put("membershipTypeDistribution", membershipTypes);
+            report.put("membershipTypeDistribution", awaitSection(typeDistribution));
             
             // Top borrowers (top 5)
-            Map<String, Long> borrowCounts = allRecords.stream()
-                .collect(Collectors.groupingBy(BorrowRecord::getMemberId, Collectors.counting()));
-            
-            List<Map.Entry<String, Long>> topBorrowers = borrowCounts.entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .limit(5)
-                .collect(Collectors.toList());
+            List<Map.Entry<String, Long>> topBorrowers = new ArrayList<>();
+            for (int member : borrowsByMember.topK(5)) {
+                topBorrowers.add(new AbstractMap.SimpleImmutableEntry<>(
+                    borrowsByMember.getKey(member), (long) borrowsByMember.getCount(member)));
+            }
             report.put("topBorrowers", topBorrowers);
             
             // Currently borrowed books
-            long currentlyBorrowedBooks = allRecords.stream()
-                .filter(record -> "BORROWED".equals(record.getStatus()))
-                .count();
-            report.put("currentlyBorrowedBooks", currentlyBorrowedBooks);
+            report.put("currentlyBorrowedBooks", statistics.getActiveBorrows());
             
             logger.log("INFO", "Member activity report generated successfully");
             
@@ -136,60 +164,70 @@ public class ReportService implements ReportGenerator {
     
     @Override
     public List<String> generateBookPopularityReport() {
-        List<String> report = new ArrayList<>();
-        report.add("=== BOOK POPULARITY REPORT ===");
-        report.add("Generated on: " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
-        report.add("");
+        return collect(this::writeBookPopularityReport);
+    }
+    
+    @Override
+    public void writeBookPopularityReport(ReportSink sink) throws IOException {
+        writeCached(BOOK_POPULARITY_REPORT, this::buildBookPopularityReport, sink);
+    }
+    
+    private boolean buildBookPopularityReport(ReportSink sink) throws IOException {
+        sink.writeLine("=== BOOK POPULARITY REPORT ===");
+        sink.writeLine("Generated on: " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+        sink.writeLine("");
         
         try {
-            List<BorrowRecord> allRecords = borrowRecordDAO.findAll();
-            
-            // Count borrows per book
-            Map<String, Long> borrowCounts = allRecords.stream()
-                .collect(Collectors.groupingBy(BorrowRecord::getIsbn, Collectors.counting()));
-            
-            // Sort by popularity
-            List<Map.Entry<String, Long>> sortedBooks = borrowCounts.entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .collect(Collectors.toList());
-            
-            if (sortedBooks.isEmpty()) {
-                report.add("No borrowing activity found.");
-            } else {
-                report.add(String.format("%-15s %-30s %-20s %-12s", 
-                    "ISBN", "Title", "Author", "Borrow Count"));
-                report.add("-".repeat(80));
+            // Counted in memory, then joined with the catalog one run of equal counts at a time,
+            // most borrowed first; only a run is held, sorted by title as the report lists it
+            BorrowHistoryStore.GroupCounts borrowsByIsbn = historyStore.countBorrowsByIsbn();
+            int[] groups = borrowsByIsbn.byCountDescending();
+            boolean headerWritten = false;
+            List<String> isbns = new ArrayList<>();
+            List<BookPopularity> run = new ArrayList<>();
+            for (int start = 0, end; start < groups.length; start = end) {
+                int borrowCount = borrowsByIsbn.getCount(groups[start]);
+                isbns.clear();
+                for (end = start; end < groups.length && borrowsByIsbn.getCount(groups[end]) == borrowCount; end++) {
+                    isbns.add(borrowsByIsbn.getKey(groups[end]));
+                }
+                run.clear();
+                reportDAO.forEachBook(isbns, borrowsByIsbn::getCount, run::add);
+                run.sort(Comparator.comparing(BookPopularity::getTitle));
                 
-                for (Map.Entry<String, Long> entry : sortedBooks) {
-                    try {
-                        Book book = bookDAO.findByIsbn(entry.getKey());
-                        if (book != null) {
-                            String title = book.getTitle();
-                            if (title.length() > 28) {
-                                title = title.substring(0, 28) + "..";
-                            }
-                            String author = book.getAuthor();
-                            if (author.length() > 18) {
-                                author = author.substring(0, 18) + "..";
-                            }
-                            
-                            report.add(String.format("%-15s %-30s %-20s %-12d", 
-                                entry.getKey(),
-                                title,
-                                author,
-                                entry.getValue()));
-                        }
-                    } catch (DatabaseException e) {
-                        logger.log("ERROR", "Error processing book popularity data: " + e.getMessage());
+                if (!headerWritten && !run.isEmpty()) {
+                    sink.writeLine(String.format("%-15s %-30s %-20s %-12s", 
+                        "ISBN", "Title", "Author", "Borrow Count"));
+                    sink.writeLine("-".repeat(80));
+                    headerWritten = true;
+                }
+                for (BookPopularity entry : run) {
+                    String title = entry.getTitle();
+                    if (title.length() > 28) {
+                        title = title.substring(0, 28) + "..";
                     }
+                    String author = entry.getAuthor();
+                    if (author.length() > 18) {
+                        author = author.substring(0, 18) + "..";
+                    }
+                    
+                    sink.writeLine(String.format("%-15s %-30s %-20s %-12d", 
+                        entry.getIsbn(),
+                        title,
+                        author,
+                        entry.getBorrowCount()));
                 }
             }
+            
+            if (!headerWritten) {
+                sink.writeLine("No borrowing activity found.");
+            }
+            return true;
         } catch (DatabaseException e) {
-            report.add("Error generating book popularity report: " + e.getMessage());
+            sink.writeLine("Error generating book popularity report: " + e.getMessage());
             logger.log("ERROR", "Failed to generate book popularity report: " + e.getMessage());
+            return false;
         }
-        
-        return report;
     }
     
     @Override
@@ -207,63 +245,195 @@ public class ReportService implements ReportGenerator {
         }
     }
     
+    @Override
+    public boolean exportReportToFile(StreamingReport report, String filename) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename))) {
+            report.writeTo(line -> {
+                writer.write(line);
+                writer.newLine();
+            });
+            logger.log("INFO", "Report exported to file: " + filename);
+            return true;
+        } catch (IOException e) {
+            logger.log("ERROR", "Failed to export report to file: " + e.getMessage());
+            return false;
+        }
+    }
+    
     // Additional reporting methods
     public List<String> generateLibraryStatisticsReport() {
-        List<String> report = new ArrayList<>();
-        report.add("=== LIBRARY STATISTICS REPORT ===");
-        report.add("Generated on: " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
-        report.add("");
+        return collect(this::writeLibraryStatisticsReport);
+    }
+    
+    @Override
+    public void writeLibraryStatisticsReport(ReportSink sink) throws IOException {
+        writeCached(LIBRARY_STATISTICS_REPORT, this::buildLibraryStatisticsReport, sink);
+    }
+    
+    private boolean buildLibraryStatisticsReport(ReportSink sink) throws IOException {
+        sink.writeLine("=== LIBRARY STATISTICS REPORT ===");
+        sink.writeLine("Generated on: " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+        sink.writeLine("");
         
         try {
-            // Book statistics
-            List<Book> allBooks = bookDAO.findAll();
-            int totalBooks = allBooks.size();
-            int availableBooks = (int) allBooks.stream().filter(Book::isAvailable).count();
-            
-            Set<String> uniqueAuthors = allBooks.stream()
-                .map(Book::getAuthor)
-                .collect(Collectors.toSet());
+            // One row from the maintained snapshot, no table scans
+            LibraryStatistics statistics = statisticsService.getStatistics();
             
-            Set<String> categories = allBooks.stream()
-                .map(Book::getCategory)
-                .collect(Collectors.toSet());
+            // Book statistics
+            long totalBooks = statistics.getActiveBooks();
+            long availableBooks = statistics.getAvailableBooks();
             
-            report.add("BOOK INVENTORY:");
-            report.add("Total Books: " + totalBooks);
-            report.add("Available Books: " + availableBooks);
-            report.add("Books Currently Borrowed: " + (totalBooks - availableBooks));
-            report.add("Unique Authors: " + uniqueAuthors.size());
-            report.add("Categories: " + categories.size());
-            report.add("");
+            sink.writeLine("BOOK INVENTORY:");
+            sink.writeLine("Total Books: " + totalBooks);
+            sink.writeLine("Available Books: " + availableBooks);
+            sink.writeLine("Books Currently Borrowed: " + (totalBooks - availableBooks));
+            sink.writeLine("Unique Authors: " + statistics.getDistinctAuthors());
+            sink.writeLine("Categories: " + statistics.getDistinctCategories());
+            sink.writeLine("");
             
-            // Member statistics
-            List<Member> allMembers = memberDAO.findAll();
-            int totalMembers = allMembers.size();
-            int activeMembers = (int) allMembers.stream().filter(Member::isActive).count();
+            // Member statistics; inactive members are not listed
+            long activeMembers = statistics.getActiveMembers();
             
-            report.add("MEMBERSHIP:");
-            report.add("Total Members: " + totalMembers);
-            report.add("Active Members: " + activeMembers);
-            report.add("");
+            sink.writeLine("MEMBERSHIP:");
+            sink.writeLine("Total Members: " + activeMembers);
+            sink.writeLine("Active Members: " + activeMembers);
+            sink.writeLine("");
             
             // Borrowing statistics
-            List<BorrowRecord> allRecords = borrowRecordDAO.findAll();
-            long totalBorrows = allRecords.size();
-            long activeBorrows = allRecords.stream()
-                .filter(record -> "BORROWED".equals(record.getStatus()))
-                .count();
-            long overdueBooks = borrowRecordDAO.findOverdueRecords().size();
-            
-            report.add("BORROWING ACTIVITY:");
-            report.add("Total Borrows (All Time): " + totalBorrows);
-            report.add("Currently Borrowed: " + activeBorrows);
-            report.add("Overdue Books: " + overdueBooks);
+            sink.writeLine("BORROWING ACTIVITY:");
+            sink.writeLine("Total Borrows (All Time): " + statistics.getBorrowRecords());
+            sink.writeLine("Currently Borrowed: " + statistics.getActiveBorrows());
+            sink.writeLine("Overdue Books: " + statistics.getOverdueBorrows());
+            return true;
             
         } catch (DatabaseException e) {
-            report.add("Error generating statistics: " + e.getMessage());
+            sink.writeLine("Error generating statistics: " + e.getMessage());
             logger.log("ERROR", "Failed to generate library statistics: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Drops the cached reports, so each is built afresh the next time it is asked for
+     */
+    public void discardCachedReports() {
+        reportCache.clear();
+    }
+    
+    // Async counterparts, run on AsyncExecutor
+    
+    public CompletableFuture<List<String>> generateOverdueReportAsync() {
+        return asyncExecutor.submit(this::generateOverdueReport);
+    }
+    
+    public CompletableFuture<Map<String, Object>> generateMemberActivityReportAsync() {
+        return asyncExecutor.submit(this::generateMemberActivityReport);
+    }
+    
+    public CompletableFuture<List<String>> generateBookPopularityReportAsync() {
+        return asyncExecutor.submit(this::generateBookPopularityReport);
+    }
+    
+    public CompletableFuture<List<String>> generateLibraryStatisticsReportAsync() {
+        return asyncExecutor.submit(this::generateLibraryStatisticsReport);
+    }
+    
+    public CompletableFuture<Boolean> exportReportToFileAsync(StreamingReport report, String filename) {
+        return asyncExecutor.submit(() -> exportReportToFile(report, filename));
+    }
+    
+    /**
+     * Replays the cached copy of a report if there is one. Otherwise the report is written
+     * as it is built, and kept unless it failed or ran past report.cache.max.lines.
+     */
+    private void writeCached(String key, ReportBody body, ReportSink sink) throws IOException {
+        if (!reportCache.isEnabled()) {
+            body.writeTo(sink);
+            return;
         }
         
-        return report;
+        List<String> cached = reportCache.get(key, () -> buildForCache(body));
+        if (cached != null) {
+            for (String line : cached) {
+                sink.writeLine(line);
+            }
+            return;
+        }
+        
+        long stamp = reportCache.getStamp();
+        ReportCopy copy = new ReportCopy(reportCache.getMaxLines());
+        boolean complete = body.writeTo(line -> {
+            sink.writeLine(line);
+            copy.writeLine(line);
+        });
+        if (complete && copy.getLines() != null) {
+            reportCache.put(key, copy.getLines(), stamp);
+        }
+    }
+    
+    /**
+     * Builds a report in the background to refresh its cached copy
+     * @return the lines, or null if they are not to be cached
+     */
+    private List<String> buildForCache(ReportBody body) throws IOException {
+        ReportCopy copy = new ReportCopy(reportCache.getMaxLines());
+        return body.writeTo(copy) ? copy.getLines() : null;
+    }
+    
+    /**
+     * Collects report lines up to a limit, dropping the copy once the report runs past it
+     */
+    private static final class ReportCopy implements ReportSink {
+        private final int maxLines;
+        private List<String> lines = new ArrayList<>();
+        
+        ReportCopy(int maxLines) {
+            this.maxLines = maxLines;
+        }
+        
+        @Override
+        public void writeLine(String line) {
+            if (lines != null && lines.size() < maxLines) {
+                lines.add(line);
+            } else {
+                lines = null;
+            }
+        }
+        
+        List<String> getLines() {
+            return lines;
+        }
+    }
+    
+    /**
+     * Waits for a section started with submitSection, rethrowing its DatabaseException
+     */
+    private static <T> T awaitSection(CompletableFuture<T> section) throws DatabaseException {
+        try {
+            return section.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof DatabaseException) {
+                throw (DatabaseException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new DatabaseException("Report section failed: " + cause.getMessage(), cause);
+        }
+    }
+    
+    /**
+     * Runs a streaming report into a list, for callers that want all lines at once
+     */
+    private List<String> collect(StreamingReport report) {
+        List<String> lines = new ArrayList<>();
+        try {
+            report.writeTo(lines::add);
+        } catch (IOException e) {
+            // Adding to a list cannot fail
+            throw new UncheckedIOException(e);
+        }
+        return lines;
     }
 }
@@ -0,0 +1,160 @@
+package com.library.service;
+
+import com.library.dao.StatisticsDAO;
+import com.library.model.LibraryStatistics;
+import com.library.exception.DatabaseException;
+import com.library.util.ConfigReader;
+import com.library.util.DatabaseConnection;
+import com.library.util.FileLogger;
+import com.library.util.Transaction;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves the library statistics from the trigger-maintained snapshot.
+ * Reading is a single-row lookup. A background job reconciles the snapshot with the
+ * source tables every stats.reconcile.interval.minutes, logging any drift it corrects.
+ * The overdue count depends on the date, so the first read on a new day moves the
+ * overdue cutoff forward first.
+ */
+public class StatisticsService {
+    private static StatisticsService instance;
+    private final StatisticsDAO statisticsDAO;
+    private final OverdueService overdueService;
+    private final DatabaseConnection dbConnection;
+    private final FileLogger logger;
+    private ScheduledExecutorService scheduler;
+    
+    private StatisticsService() {
+        this.statisticsDAO = new StatisticsDAO();
+        this.overdueService = OverdueService.getInstance();
+        this.dbConnection = DatabaseConnection.getInstance();
+        this.logger = FileLogger.getInstance();
+    }
+    
+    public static synchronized StatisticsService getInstance() {
+        if (instance == null) {
+            instance = new StatisticsService();
+        }
+        return instance;
+    }
+    
+    public LibraryStatistics getStatistics() throws DatabaseException {
+        LibraryStatistics statistics = statisticsDAO.findSnapshot();
+        LocalDate today = LocalDate.now();
+        if (statistics.getOverdueCutoff().isBefore(today)) {
+            try {
+                // Flag the loans that fell due first, so few are left to count under the write
+                // lock; this opens its own transaction, so it cannot run inside the one below
+                overdueService.ensureCurrent();
+                try (Transaction transaction = dbConnection.beginTransaction()) {
+                    // A no-op if another reader advanced it while this one waited
+                    statisticsDAO.advanceOverdueCutoff(today);
+                    statistics = statisticsDAO.findSnapshot();
+                    transaction.commit();
+                }
+            } catch (DatabaseException e) {
+                logger.log("ERROR", "Failed to advance the overdue cutoff: " + e.getMessage());
+                throw e;
+            }
+        }
+        return statistics;
+    }
+    
+    /**
+     * Checks the snapshot against the source tables and corrects any drift. The scans run in
+     * a read transaction; only the corrections take the write lock, and not at all if there
+     * is no drift. Counters a write moved during the scans are left for the next run.
+     */
+    public synchronized LibraryStatistics reconcile() throws DatabaseException {
+        try {
+            LibraryStatistics before;
+            LibraryStatistics counted;
+            List<String> authors;
+            List<String> categories;
+            try (Transaction transaction = dbConnection.beginReadTransaction()) {
+                before = statisticsDAO.findSnapshot();
+                counted = statisticsDAO.countFromSources(before.getOverdueCutoff());
+                authors = statisticsDAO.findDriftedAuthors();
+                categories = statisticsDAO.findDriftedCategories();
+                transaction.commit();
+            }
+            
+            if (counted.toString().equals(before.toString()) && authors.isEmpty() && categories.isEmpty()) {
+                logger.log("INFO", "Library statistics reconciled: {}", before);
+                return before;
+            }
+            
+            LibraryStatistics after;
+            boolean current;
+            try (Transaction transaction = dbConnection.beginTransaction()) {
+                // Compare before the recounts below, whose triggers move the distinct counters
+                current = statisticsDAO.findSnapshot().toString().equals(before.toString());
+                statisticsDAO.recountAuthors(authors);
+                statisticsDAO.recountCategories(categories);
+                if (current) {
+                    statisticsDAO.applyCounts(counted);
+                }
+                after = statisticsDAO.findSnapshot();
+                transaction.commit();
+            }
+            
+            if (current) {
+                logger.log("WARNING", "Library statistics drifted, corrected from {} to {}", before, after);
+            } else {
+                logger.log("WARNING", "Library statistics drifted from {} but changed while counted; corrected {} authors and {} categories, the rest is checked at the next run",
+                    before, authors.size(), categories.size());
+            }
+            return after;
+        } catch (DatabaseException e) {
+            logger.log("ERROR", "Failed to reconcile library statistics: " + e.getMessage());
+            throw e;
+        }
+    }
+    
+    /**
+     * Reconciles now and then on a schedule; a no-op if already started
+     */
+    public synchronized void startReconciliation() {
+        if (scheduler != null) {
+            return;
+        }
+        long intervalMinutes = Math.max(1, ConfigReader.getInstance().getIntProperty("stats.reconcile.interval.minutes", 60));
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "library-stats-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                reconcile();
+            } catch (DatabaseException e) {
+                // Already logged; try again at the next interval
+            }
+        }, 0, intervalMinutes, TimeUnit.MINUTES);
+    }
+    
+    public void shutdown() {
+        ScheduledExecutorService running;
+        synchronized (this) {
+            running = scheduler;
+            scheduler = null;
+        }
+        if (running == null) {
+            return;
+        }
+        // Let a reconciliation in progress commit before the connections close
+        running.shutdown();
+        try {
+            if (!running.awaitTermination(5, TimeUnit.SECONDS)) {
+                running.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            running.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -4,11 +4,17 @@ import com.library.service.BookService;
 import com.library.service.MemberService;
 import com.library.service.BorrowingService;
 import com.library.service.ReportService;
+import com.library.service.CatalogImportService;
+import com.library.dao.Page;
 import com.library.model.Book;
 import com.library.model.Member;
 import com.library.model.BorrowRecord;
+import com.library.model.ImportResult;
 import com.library.exception.*;
+import com.library.interfaces.StreamingReportGenerator.StreamingReport;
 import com.library.util.FileLogger;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
@@ -21,11 +27,14 @@ import java.util.Scanner;
  * Provides a menu-driven interface for all system operations
  */
 public class MainMenu {
+    private static final int PAGE_SIZE = 20;
+    
     private final Scanner scanner;
     private final BookService bookService;
     private final MemberService memberService;
     private final BorrowingService borrowingService;
     private final ReportService reportService;
+    private final CatalogImportService catalogImportService;
     private final FileLogger logger;
     
     public MainMenu() {
@@ -34,6 +43,7 @@ public class MainMenu {
         this.memberService = new MemberService();
         this.borrowingService = new BorrowingService();
         this.reportService = new ReportService();
+        this.catalogImportService = new CatalogImportService();
         this.logger = FileLogger.getInstance();
     }
     
@@ -98,7 +108,8 @@ public class MainMenu {
             System.out.println("4. Update Book");
             System.out.println("5. Delete Book");
             System.out.println("6. View Available Books");
-            System.out.println("7. Back to Main Menu");
+            System.out.println("7. Import Books from CSV");
+            System.out.println("8. Back to Main Menu");
             
             int choice = getIntInput("Enter your choice: ");
             
@@ -123,6 +134,9 @@ public class MainMenu {
                         viewAvailableBooks();
                         break;
                     case 7:
+                        importBooks();
+                        break;
+                    case 8:
                         return;
                     default:
                         System.out.println("Invalid choice. Please try again.");
@@ -166,12 +180,17 @@ public class MainMenu {
     
     private void viewAllBooks() throws DatabaseException {
         System.out.println("\n--- ALL BOOKS ---");
-        List<Book> books = bookService.getAllBooks();
+        Page<Book> page = bookService.getBooksPage(null, PAGE_SIZE);
         
-        if (books.isEmpty()) {
+        if (page.isEmpty()) {
             System.out.println("No books found in the library.");
-        } else {
-            displayBookList(books);
+            return;
+        }
+        
+        displayBookList(page.getItems());
+        while (page.hasMore() && continueToNextPage()) {
+            page = bookService.getBooksPage(page.getLastItem(), PAGE_SIZE);
+            displayBookList(page.getItems());
         }
     }
     
@@ -223,6 +242,22 @@ public class MainMenu {
         }
     }
     
+    private void importBooks() throws LibraryException {
+        System.out.println("\n--- IMPORT BOOKS FROM CSV ---");
+        System.out.println("Columns: isbn, title, author, category, publisher, publication_date, total_copies");
+        String fileName = getStringInput("Enter CSV file path: ");
+        
+        ImportResult result = catalogImportService.importBooks(Paths.get(fileName),
+            progress -> System.out.println("  " + progress.getRowsRead() + " rows read, "
+                + progress.getBooksImported() + " books imported..."));
+        
+        System.out.println("Import complete: " + result.getBooksImported() + " books imported, "
+            + result.getRejected() + " rows rejected.");
+        for (String rejection : result.getRejections()) {
+            System.out.println("  " + rejection);
+        }
+    }
+    
     private void viewAvailableBooks() throws DatabaseException {
         System.out.println("\n--- AVAILABLE BOOKS ---");
         List<Book> books = bookService.getAvailableBooks();
@@ -300,24 +335,34 @@ public class MainMenu {
         System.out.println("\n--- SEARCH MEMBERS ---");
         String searchTerm = getStringInput("Enter search term (ID, name, or email): ");
         
-        List<Member> members = memberService.searchMembers(searchTerm);
+        Page<Member> page = memberService.searchMembersPage(searchTerm, null, PAGE_SIZE);
         
-        if (members.isEmpty()) {
+        if (page.isEmpty()) {
             System.out.println("No members found matching: " + searchTerm);
-        } else {
-            System.out.println("\nSearch Results:");
-            displayMemberList(members);
+            return;
+        }
+        
+        System.out.println("\nSearch Results:");
+        displayMemberList(page.getItems());
+        while (page.hasMore() && continueToNextPage()) {
+            page = memberService.searchMembersPage(searchTerm, page.getLastItem(), PAGE_SIZE);
+            displayMemberList(page.getItems());
         }
     }
     
     private void viewAllMembers() throws DatabaseException {
         System.out.println("\n--- ALL MEMBERS ---");
-        List<Member> members = memberService.getAllMembers();
+        Page<Member> page = memberService.getMembersPage(null, PAGE_SIZE);
         
-        if (members.isEmpty()) {
+        if (page.isEmpty()) {
             System.out.println("No members found.");
-        } else {
-            displayMemberList(members);
+            return;
+        }
+        
+        displayMemberList(page.getItems());
+        while (page.hasMore() && continueToNextPage()) {
+            page = memberService.getMembersPage(page.getLastItem(), PAGE_SIZE);
+            displayMemberList(page.getItems());
         }
     }
     
@@ -465,12 +510,17 @@ public class MainMenu {
     private void viewAllBorrowRecords() throws DatabaseException {
         System.out.println("\n--- ALL BORROW RECORDS ---");
         
-        List<BorrowRecord> allRecords = borrowingService.getAllBorrowRecords();
+        Page<BorrowRecord> page = borrowingService.getBorrowRecordsPage(null, PAGE_SIZE);
         
-        if (allRecords.isEmpty()) {
+        if (page.isEmpty()) {
             System.out.println("No borrow records found.");
-        } else {
-            displayBorrowRecordList(allRecords);
+            return;
+        }
+        
+        displayBorrowRecordList(page.getItems());
+        while (page.hasMore() && continueToNextPage()) {
+            page = borrowingService.getBorrowRecordsPage(page.getLastItem(), PAGE_SIZE);
+            displayBorrowRecordList(page.getItems());
         }
     }
     
@@ -532,10 +582,7 @@ public class MainMenu {
     private void generateOverdueReport() {
         System.out.println("\n--- OVERDUE BOOKS REPORT ---");
         
-        List<String> report = reportService.generateOverdueReport();
-        for (String line : report) {
-            System.out.println(line);
-        }
+        printReport(reportService::writeOverdueReport);
     }
     
     private void generateMemberActivityReport() {
@@ -565,19 +612,13 @@ public class MainMenu {
     private void generateBookPopularityReport() {
         System.out.println("\n--- BOOK POPULARITY REPORT ---");
         
-        List<String> report = reportService.generateBookPopularityReport();
-        for (String line : report) {
-            System.out.println(line);
-        }
+        printReport(reportService::writeBookPopularityReport);
     }
     
     private void generateLibraryStatisticsReport() {
         System.out.println("\n--- LIBRARY STATISTICS REPORT ---");
         
-        List<String> report = reportService.generateLibraryStatisticsReport();
-        for (String line : report) {
-            System.out.println(line);
-        }
+        printReport(reportService::writeLibraryStatisticsReport);
     }
     
     private void exportReportToFile() {
@@ -589,30 +630,39 @@ public class MainMenu {
         int reportChoice = getIntInput("Select report to export: ");
         String filename = getStringInput("Enter filename (without extension): ") + ".txt";
         
-        List<String> reportData = null;
+        StreamingReport report;
         
         switch (reportChoice) {
             case 1:
-                reportData = reportService.generateOverdueReport();
+                report = reportService::writeOverdueReport;
                 break;
             case 2:
-                reportData = reportService.generateBookPopularityReport();
+                report = reportService::writeBookPopularityReport;
                 break;
             case 3:
-                reportData = reportService.generateLibraryStatisticsReport();
+                report = reportService::writeLibraryStatisticsReport;
                 break;
             default:
                 System.out.println("Invalid report choice.");
                 return;
         }
         
-        if (reportService.exportReportToFile(reportData, filename)) {
+        // Streamed straight to the file, never held in memory
+        if (reportService.exportReportToFile(report, filename)) {
             System.out.println("Report exported successfully to: " + filename);
         } else {
             System.out.println("Failed to export report.");
         }
     }
     
+    private void printReport(StreamingReport report) {
+        try {
+            report.writeTo(System.out::println);
+        } catch (IOException e) {
+            System.out.println("Failed to print report: " + e.getMessage());
+        }
+    }
+    
     // Helper methods for displaying data
     private void displayBookList(List<Book> books) {
         System.out.println(String.format("%-15s %-30s %-20s %-15s %-10s", 
@@ -682,6 +732,11 @@ public class MainMenu {
         }
     }
     
+    private boolean continueToNextPage() {
+        System.out.print("Press Enter for the next page, or type q to stop: ");
+        return !scanner.nextLine().trim().equalsIgnoreCase("q");
+    }
+    
     // Input validation helper methods
     private String getStringInput(String prompt) {
         System.out.print(prompt);
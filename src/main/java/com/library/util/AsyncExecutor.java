@@ -0,0 +1,152 @@
+package com.library.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Singleton executor behind the services' async methods.
+ * Each task runs on its own virtual thread where the JVM supports them (Java 21+),
+ * otherwise on a fixed pool of daemon platform threads. A gate of
+ * async.max.concurrency permits (default db.connection.pool.size) sits in front of
+ * the database, so extra requests park cheaply instead of timing out in the pool.
+ */
+public class AsyncExecutor {
+    private static AsyncExecutor instance;
+    private final ExecutorService executor;
+    // Runs submitSection work; never the fixed pool, whose threads may all be waiting on sections
+    private final ExecutorService sectionExecutor;
+    private final Semaphore databaseGate;
+    private final boolean virtualThreads;
+    
+    /**
+     * Service call that may throw the service's checked exceptions
+     */
+    @FunctionalInterface
+    public interface Task<T> {
+        T call() throws Exception;
+    }
+    
+    private AsyncExecutor() {
+        ConfigReader configReader = ConfigReader.getInstance();
+        int maxConcurrency = configReader.getIntProperty("async.max.concurrency",
+            configReader.getIntProperty("db.connection.pool.size", 10));
+        this.databaseGate = new Semaphore(Math.max(1, maxConcurrency), true);
+        
+        ExecutorService virtualExecutor = createVirtualThreadExecutor();
+        this.virtualThreads = virtualExecutor != null;
+        this.executor = virtualThreads ? virtualExecutor : createPlatformThreadExecutor(maxConcurrency);
+        this.sectionExecutor = virtualThreads ? executor : createSectionThreadExecutor();
+        FileLogger.getInstance().log("INFO", "Async executor started with {} threads, database gate of {}",
+            virtualThreads ? "virtual" : "platform", maxConcurrency);
+    }
+    
+    public static synchronized AsyncExecutor getInstance() {
+        if (instance == null) {
+            instance = new AsyncExecutor();
+        }
+        return instance;
+    }
+    
+    /**
+     * Runs a task that uses the database; it waits for a gate permit on its own thread.
+     * The future fails with the task's own exception.
+     */
+    public <T> CompletableFuture<T> submit(Task<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                databaseGate.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.completeExceptionally(e);
+                return;
+            }
+            try {
+                future.complete(task.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                databaseGate.release();
+            }
+        });
+        return future;
+    }
+    
+    /**
+     * Runs one section of a task its caller will wait for, without a gate permit.
+     * A gated task waiting on gated sections could deadlock once every permit is held by
+     * a waiting task; sections still queue for a connection in the pool. Without virtual
+     * threads they get their own cached pool, since queueing them behind the fixed pool's
+     * waiting tasks would deadlock the same way.
+     */
+    public <T> CompletableFuture<T> submitSection(Task<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        sectionExecutor.execute(() -> {
+            try {
+                future.complete(task.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+    
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+    
+    public void shutdown() {
+        if (sectionExecutor != executor) {
+            sectionExecutor.shutdown();
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Looked up reflectively so the code still builds and runs on Java 17
+     */
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) MethodHandles.publicLookup()
+                .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class))
+                .invoke();
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+    
+    /**
+     * Unbounded, but sections are few per task and idle threads exit after a minute
+     */
+    private static ExecutorService createSectionThreadExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "library-section-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    private static ExecutorService createPlatformThreadExecutor(int threads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "library-async-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
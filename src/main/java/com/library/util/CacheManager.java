@@ -0,0 +1,105 @@
+package com.library.util;
+
+import com.library.model.Book;
+import com.library.model.Member;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Singleton holding the read-through caches used by the DAOs.
+ * Configured from cache.enabled and cache.size; each cache holds up to cache.size entries.
+ * Also holds the finished reports, marked stale by every DAO write they read from.
+ */
+public class CacheManager {
+    private static CacheManager instance;
+    private final LruCache<String, Book> bookCache;
+    private final LruCache<String, Member> memberCache;
+    private final ReportCache reportCache;
+    private final DatabaseConnection dbConnection;
+    
+    private CacheManager() {
+        ConfigReader configReader = ConfigReader.getInstance();
+        int size = configReader.getBooleanProperty("cache.enabled", true)
+            ? configReader.getIntProperty("cache.size", 1000)
+            : 0;
+        this.bookCache = new LruCache<>("books", size);
+        this.memberCache = new LruCache<>("members", size);
+        this.reportCache = new ReportCache(
+            configReader.getBooleanProperty("cache.enabled", true)
+                ? TimeUnit.SECONDS.toMillis(configReader.getIntProperty("report.cache.ttl.seconds", 300))
+                : 0,
+            TimeUnit.SECONDS.toMillis(configReader.getIntProperty("report.cache.stale.seconds", 30)),
+            configReader.getIntProperty("report.cache.max.lines", 10000));
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+    
+    public static synchronized CacheManager getInstance() {
+        if (instance == null) {
+            instance = new CacheManager();
+        }
+        return instance;
+    }
+    
+    public LruCache<String, Book> getBookCache() {
+        return bookCache;
+    }
+    
+    public LruCache<String, Member> getMemberCache() {
+        return memberCache;
+    }
+    
+    public ReportCache getReportCache() {
+        return reportCache;
+    }
+    
+    /**
+     * Drops a key after a write. Inside a transaction the key is dropped again once
+     * the transaction ends, since other threads may have cached the old row meanwhile.
+     */
+    public <K> void invalidate(LruCache<K, ?> cache, K key) {
+        cache.invalidate(key);
+        Transaction transaction = dbConnection.getCurrentTransaction();
+        if (transaction != null) {
+            transaction.onCompletion(() -> cache.invalidate(key));
+        }
+    }
+    
+    /**
+     * Empties a cache after a bulk write, again once a surrounding transaction ends
+     */
+    public void invalidateAll(LruCache<?, ?> cache) {
+        cache.clear();
+        Transaction transaction = dbConnection.getCurrentTransaction();
+        if (transaction != null) {
+            transaction.onCompletion(cache::clear);
+        }
+    }
+    
+    /**
+     * Marks the cached reports stale after a write, again once a surrounding transaction ends
+     */
+    public void invalidateReports() {
+        reportCache.invalidateAll();
+        Transaction transaction = dbConnection.getCurrentTransaction();
+        if (transaction != null) {
+            transaction.onCompletion(reportCache::invalidateAll);
+        }
+    }
+    
+    /**
+     * Only committed rows may be cached; reads inside a transaction can see uncommitted writes
+     */
+    public boolean canPopulate() {
+        return !dbConnection.isInTransaction();
+    }
+    
+    public void clearAll() {
+        bookCache.clear();
+        memberCache.clear();
+        reportCache.clear();
+    }
+    
+    @Override
+    public String toString() {
+        return bookCache + ", " + memberCache + ", " + reportCache;
+    }
+}
@@ -18,6 +18,7 @@ public class ConfigReader {
         this.properties = new Properties();
         this.configFileName = "config/database.properties";
         loadConfiguration();
+        FileLogger.getInstance().configure(this);
     }
     
     public static synchronized ConfigReader getInstance() {
@@ -50,17 +51,19 @@ public class ConfigReader {
     }
     
     // Method overloading for getting properties
+    // JVM system properties (-Dkey=value) take precedence over the file
     public String getProperty(String key) {
-        return properties.getProperty(key);
+        return System.getProperty(key, properties.getProperty(key));
     }
     
     public String getProperty(String key, String defaultValue) {
-        return properties.getProperty(key, defaultValue);
+        String value = getProperty(key);
+        return value != null ? value : defaultValue;
     }
     
     public int getIntProperty(String key, int defaultValue) {
         try {
-            String value = properties.getProperty(key);
+            String value = getProperty(key);
             return value != null ? Integer.parseInt(value) : defaultValue;
         } catch (NumberFormatException e) {
             FileLogger.getInstance().log("WARNING", "Invalid integer value for property: " + key);
@@ -69,7 +72,7 @@ public class ConfigReader {
     }
     
     public boolean getBooleanProperty(String key, boolean defaultValue) {
-        String value = properties.getProperty(key);
+        String value = getProperty(key);
         return value != null ? Boolean.parseBoolean(value) : defaultValue;
     }
     
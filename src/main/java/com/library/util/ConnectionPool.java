@@ -0,0 +1,255 @@
+package com.library.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of JDBC connections.
+ * Connections handed out are proxies whose close() returns the physical
+ * connection to the pool instead of closing it.
+ */
+public class ConnectionPool {
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    
+    private final String databaseUrl;
+    private final Properties connectionProperties;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final int queryTimeoutSeconds;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<Connection> idleConnections;
+    private final AtomicInteger activeCount;
+    private final AtomicInteger waitingCount;
+    private final AtomicLong totalWaits;
+    private final AtomicLong totalTimeouts;
+    private final FileLogger logger;
+    private volatile boolean closed;
+    
+    public ConnectionPool(String databaseUrl, int maxSize, long acquireTimeoutMillis, int queryTimeoutSeconds) {
+        this(databaseUrl, new Properties(), maxSize, acquireTimeoutMillis, queryTimeoutSeconds);
+    }
+    
+    public ConnectionPool(String databaseUrl, Properties connectionProperties, int maxSize,
+                          long acquireTimeoutMillis, int queryTimeoutSeconds) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        this.databaseUrl = databaseUrl;
+        this.connectionProperties = connectionProperties;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.queryTimeoutSeconds = queryTimeoutSeconds;
+        this.permits = new Semaphore(maxSize, true);
+        this.idleConnections = new LinkedBlockingDeque<>();
+        this.activeCount = new AtomicInteger();
+        this.waitingCount = new AtomicInteger();
+        this.totalWaits = new AtomicLong();
+        this.totalTimeouts = new AtomicLong();
+        this.logger = FileLogger.getInstance();
+    }
+    
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        
+        acquirePermit();
+        try {
+            Connection physical = takeValidIdleConnection();
+            if (physical == null) {
+                physical = openConnection();
+            }
+            activeCount.incrementAndGet();
+            return wrap(physical);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+    
+    private void acquirePermit() throws SQLException {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        
+        waitingCount.incrementAndGet();
+        totalWaits.incrementAndGet();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                totalTimeouts.incrementAndGet();
+                throw new SQLException("Timed out after " + acquireTimeoutMillis
+                    + " ms waiting for a database connection (pool size " + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        } finally {
+            waitingCount.decrementAndGet();
+        }
+    }
+    
+    private Connection takeValidIdleConnection() {
+        Connection candidate;
+        while ((candidate = idleConnections.pollFirst()) != null) {
+            if (isUsable(candidate)) {
+                return candidate;
+            }
+            closeQuietly(candidate);
+        }
+        return null;
+    }
+    
+    private boolean isUsable(Connection connection) {
+        try {
+            return !connection.isClosed() && connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+    
+    private Connection openConnection() throws SQLException {
+        return DriverManager.getConnection(databaseUrl, connectionProperties);
+    }
+    
+    private void release(Connection physical) {
+        activeCount.decrementAndGet();
+        try {
+            if (closed || physical.isClosed()) {
+                closeQuietly(physical);
+                return;
+            }
+            
+            // Never hand a half-finished transaction to the next borrower
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            idleConnections.offerFirst(physical);
+        } catch (SQLException e) {
+            logger.log("WARNING", "Discarding pooled connection: " + e.getMessage());
+            closeQuietly(physical);
+        } finally {
+            permits.release();
+        }
+    }
+    
+    private Connection wrap(Connection physical) {
+        return (Connection) Proxy.newProxyInstance(
+            ConnectionPool.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            new PooledConnectionHandler(physical));
+    }
+    
+    public void shutdown() {
+        closed = true;
+        Connection connection;
+        while ((connection = idleConnections.pollFirst()) != null) {
+            closeQuietly(connection);
+        }
+    }
+    
+    private void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.log("WARNING", "Failed to close connection: " + e.getMessage());
+        }
+    }
+    
+    // Pool statistics
+    public int getMaxSize() {
+        return maxSize;
+    }
+    
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+    
+    public int getIdleCount() {
+        return idleConnections.size();
+    }
+    
+    public int getWaitingCount() {
+        return waitingCount.get();
+    }
+    
+    public long getTotalWaits() {
+        return totalWaits.get();
+    }
+    
+    public long getTotalTimeouts() {
+        return totalTimeouts.get();
+    }
+    
+    @Override
+    public String toString() {
+        return "ConnectionPool{" +
+                "max=" + maxSize +
+                ", active=" + getActiveCount() +
+                ", idle=" + getIdleCount() +
+                ", waiting=" + getWaitingCount() +
+                ", totalWaits=" + getTotalWaits() +
+                ", timeouts=" + getTotalTimeouts() +
+                '}';
+    }
+    
+    /**
+     * Routes calls to the physical connection until the borrower closes it
+     */
+    private class PooledConnectionHandler implements InvocationHandler {
+        private final Connection physical;
+        private boolean returned;
+        
+        PooledConnectionHandler(Connection physical) {
+            this.physical = physical;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(physical);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical + "]";
+                default:
+                    break;
+            }
+            
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            
+            try {
+                Object result = method.invoke(physical, args);
+                if (result instanceof Statement && queryTimeoutSeconds > 0) {
+                    ((Statement) result).setQueryTimeout(queryTimeoutSeconds);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
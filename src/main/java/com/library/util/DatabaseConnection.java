@@ -2,9 +2,10 @@ package com.library.util;
 
 import com.library.exception.DatabaseException;
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Properties;
 
 /**
  * Singleton class managing database connections and initialization
@@ -14,11 +15,63 @@ public class DatabaseConnection {
     private final String databaseUrl;
     private final ConfigReader configReader;
     private final FileLogger logger;
+    private final ConnectionPool connectionPool;
+    private final ThreadLocal<Transaction> currentTransaction;
     
     private DatabaseConnection() {
         this.configReader = ConfigReader.getInstance();
         this.logger = FileLogger.getInstance();
         this.databaseUrl = "jdbc:sqlite:" + configReader.getProperty("db.name", "library.db");
+        
+        try {
+            Class.forName(configReader.getProperty("db.driver", "org.sqlite.JDBC"));
+        } catch (ClassNotFoundException e) {
+            logger.log("ERROR", "SQLite JDBC driver not found", e);
+        }
+        
+        int poolSize = configReader.getIntProperty("db.connection.pool.size", 10);
+        int acquireTimeoutSeconds = configReader.getIntProperty("db.connection.pool.timeout.seconds", 30);
+        int queryTimeoutSeconds = configReader.getIntProperty("db.query.timeout.seconds", 30);
+        // Write transactions take the RESERVED lock up front so two desks cannot deadlock upgrading
+        Properties connectionProperties = new Properties();
+        connectionProperties.setProperty("transaction_mode", "IMMEDIATE");
+        applyPerformanceProfile(connectionProperties);
+        
+        this.connectionPool = new ConnectionPool(databaseUrl, connectionProperties, poolSize,
+            acquireTimeoutSeconds * 1000L, queryTimeoutSeconds);
+        this.currentTransaction = new ThreadLocal<>();
+        logger.log("INFO", "Connection pool created with " + poolSize + " connections");
+    }
+    
+    /**
+     * Adds the SQLite PRAGMAs from database.properties; the driver runs them on every new connection.
+     * WAL lets report and search readers run alongside checkout writers, and synchronous=NORMAL
+     * is durable against application crashes in WAL mode. A blank value (or 0 for the sizes)
+     * keeps the SQLite default.
+     */
+    private void applyPerformanceProfile(Properties connectionProperties) {
+        setPragma(connectionProperties, "journal_mode", configReader.getProperty("db.journal.mode", "WAL"));
+        setPragma(connectionProperties, "synchronous", configReader.getProperty("db.synchronous", "NORMAL"));
+        setPragma(connectionProperties, "temp_store", configReader.getProperty("db.temp.store", "MEMORY"));
+        setPragma(connectionProperties, "busy_timeout", configReader.getProperty("db.busy.timeout.ms", "5000"));
+        
+        // A negative cache_size is in KiB rather than pages
+        int cacheSizeKb = configReader.getIntProperty("db.cache.size.kb", 20000);
+        if (cacheSizeKb > 0) {
+            connectionProperties.setProperty("cache_size", String.valueOf(-cacheSizeKb));
+        }
+        int mmapSizeMb = configReader.getIntProperty("db.mmap.size.mb", 256);
+        if (mmapSizeMb > 0) {
+            connectionProperties.setProperty("mmap_size", String.valueOf(mmapSizeMb * 1024L * 1024L));
+        }
+        
+        logger.log("INFO", "SQLite profile: " + connectionProperties);
+    }
+    
+    private static void setPragma(Properties connectionProperties, String pragma, String value) {
+        if (value != null && !value.isBlank()) {
+            connectionProperties.setProperty(pragma, value.trim());
+        }
     }
     
     public static synchronized DatabaseConnection getInstance() {
@@ -29,14 +82,74 @@ public class DatabaseConnection {
     }
     
     public Connection getConnection() throws SQLException {
+        Transaction transaction = currentTransaction.get();
+        if (transaction != null) {
+            return transaction.getSharedConnection();
+        }
+        return connectionPool.getConnection();
+    }
+    
+    public Transaction beginTransaction() throws DatabaseException {
+        return begin(false);
+    }
+    
+    /**
+     * Opens a transaction for reads only. It starts DEFERRED, so unlike beginTransaction it
+     * holds no write lock and writers carry on; under WAL all its reads see one snapshot.
+     */
+    public Transaction beginReadTransaction() throws DatabaseException {
+        return begin(true);
+    }
+    
+    private Transaction begin(boolean readOnly) throws DatabaseException {
+        if (currentTransaction.get() != null) {
+            throw new DatabaseException("A transaction is already active on this thread");
+        }
+        
+        Connection connection = null;
         try {
-            Class.forName("org.sqlite.JDBC");
-            return DriverManager.getConnection(databaseUrl);
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("SQLite JDBC driver not found", e);
+            connection = connectionPool.getConnection();
+            Transaction transaction = new Transaction(this, connection, readOnly);
+            currentTransaction.set(transaction);
+            return transaction;
+        } catch (SQLException e) {
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (SQLException closeError) {
+                    e.addSuppressed(closeError);
+                }
+            }
+            throw new DatabaseException("Failed to begin transaction: " + e.getMessage(), e);
         }
     }
     
+    public boolean isInTransaction() {
+        return currentTransaction.get() != null;
+    }
+    
+    /**
+     * @return the transaction open on this thread, or null
+     */
+    public Transaction getCurrentTransaction() {
+        return currentTransaction.get();
+    }
+    
+    void endTransaction(Transaction transaction) {
+        if (currentTransaction.get() == transaction) {
+            currentTransaction.remove();
+        }
+    }
+    
+    public ConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+    
+    public void shutdown() {
+        connectionPool.shutdown();
+        logger.log("INFO", "Connection pool shut down: " + connectionPool);
+    }
+    
     public void initializeDatabase() throws DatabaseException {
         try (Connection conn = getConnection();
              Statement stmt = conn.createStatement()) {
@@ -99,6 +212,20 @@ public class DatabaseConnection {
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_borrow_records_member ON borrow_records(member_id)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_borrow_records_status ON borrow_records(status)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_borrow_records_due_date ON borrow_records(due_date)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_borrow_records_isbn ON borrow_records(isbn)");
+            
+            // Keyset pagination indexes matching each DAO's page ordering
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_books_title_isbn ON books(title, isbn)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_members_name_id ON members(last_name, first_name, id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_borrow_records_borrow_date ON borrow_records(borrow_date, record_id)");
+            
+            // Overdue listings and the overdue engine read one status in due date order
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_borrow_records_status_due ON borrow_records(status, due_date)");
+            
+            initializeSearchIndex(conn, stmt);
+            initializeStatistics(stmt);
+            initializeOverdueTracking(stmt);
+            initializeBorrowStatusLog(stmt);
             
             logger.log("INFO", "Database tables initialized successfully");
             
@@ -107,6 +234,238 @@ public class DatabaseConnection {
         }
     }
     
+    /**
+     * Creates the FTS5 catalog index used by BookDAO.searchBooks.
+     * It is an external-content table keyed by the books rowid, kept in sync by triggers;
+     * run "INSERT INTO books_fts(books_fts) VALUES('rebuild')" after a VACUUM.
+     */
+    private void initializeSearchIndex(Connection conn, Statement stmt) throws SQLException {
+        boolean indexExists;
+        try (ResultSet rs = conn.getMetaData().getTables(null, null, "books_fts", null)) {
+            indexExists = rs.next();
+        }
+        
+        stmt.execute("""
+            CREATE VIRTUAL TABLE IF NOT EXISTS books_fts USING fts5(
+                title, author, category, isbn,
+                content='books', content_rowid='rowid', prefix='2 3'
+            )
+        """);
+        
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS books_fts_insert AFTER INSERT ON books BEGIN
+                INSERT INTO books_fts(rowid, title, author, category, isbn)
+                VALUES (new.rowid, new.title, new.author, new.category, new.isbn);
+            END
+        """);
+        
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS books_fts_delete AFTER DELETE ON books BEGIN
+                INSERT INTO books_fts(books_fts, rowid, title, author, category, isbn)
+                VALUES ('delete', old.rowid, old.title, old.author, old.category, old.isbn);
+            END
+        """);
+        
+        // Only fires for searchable columns, so checkouts never touch the index
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS books_fts_update AFTER UPDATE OF title, author, category, isbn ON books BEGIN
+                INSERT INTO books_fts(books_fts, rowid, title, author, category, isbn)
+                VALUES ('delete', old.rowid, old.title, old.author, old.category, old.isbn);
+                INSERT INTO books_fts(rowid, title, author, category, isbn)
+                VALUES (new.rowid, new.title, new.author, new.category, new.isbn);
+            END
+        """);
+        
+        if (!indexExists) {
+            // Index books that were added before the search index existed
+            stmt.execute("INSERT INTO books_fts(books_fts) VALUES('rebuild')");
+            logger.log("INFO", "Full-text search index built");
+        }
+    }
+    
+    /**
+     * Creates the library_stats snapshot read by the statistics report.
+     * Triggers adjust its counters inside every transaction that writes books, members or
+     * borrow records. Distinct authors and categories are tracked through per-value book
+     * counts. overdue_borrows counts loans flagged OVERDUE plus those still BORROWED but due
+     * before overdue_cutoff; StatisticsService moves the cutoff to today on the first read of
+     * a day, and checks every counter against the source tables when it reconciles.
+     */
+    private void initializeStatistics(Statement stmt) throws SQLException {
+        stmt.execute("""
+            CREATE TABLE IF NOT EXISTS library_stats (
+                id INTEGER PRIMARY KEY CHECK (id = 1),
+                active_books INTEGER NOT NULL DEFAULT 0,
+                available_books INTEGER NOT NULL DEFAULT 0,
+                distinct_authors INTEGER NOT NULL DEFAULT 0,
+                distinct_categories INTEGER NOT NULL DEFAULT 0,
+                active_members INTEGER NOT NULL DEFAULT 0,
+                borrow_records INTEGER NOT NULL DEFAULT 0,
+                active_borrows INTEGER NOT NULL DEFAULT 0,
+                overdue_borrows INTEGER NOT NULL DEFAULT 0,
+                overdue_cutoff DATE NOT NULL DEFAULT 0
+            )
+        """);
+        stmt.execute("INSERT OR IGNORE INTO library_stats (id) VALUES (1)");
+        stmt.execute("CREATE TABLE IF NOT EXISTS book_author_counts (author TEXT PRIMARY KEY, books INTEGER NOT NULL)");
+        stmt.execute("CREATE TABLE IF NOT EXISTS book_category_counts (category TEXT PRIMARY KEY, books INTEGER NOT NULL)");
+        
+        // A value's first active book adds it to the distinct count, its last one removes it
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS book_author_counts_insert AFTER INSERT ON book_author_counts BEGIN
+                UPDATE library_stats SET distinct_authors = distinct_authors + 1 WHERE id = 1;
+            END
+        """);
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS book_author_counts_delete AFTER DELETE ON book_author_counts BEGIN
+                UPDATE library_stats SET distinct_authors = distinct_authors - 1 WHERE id = 1;
+            END
+        """);
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS book_category_counts_insert AFTER INSERT ON book_category_counts BEGIN
+                UPDATE library_stats SET distinct_categories = distinct_categories + 1 WHERE id = 1;
+            END
+        """);
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS book_category_counts_delete AFTER DELETE ON book_category_counts BEGIN
+                UPDATE library_stats SET distinct_categories = distinct_categories - 1 WHERE id = 1;
+            END
+        """);
+        
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS books_stats_insert AFTER INSERT ON books WHEN new.is_active BEGIN
+                UPDATE library_stats SET active_books = active_books + 1,
+                    available_books = available_books + (new.available_copies > 0)
+                WHERE id = 1;
+                INSERT INTO book_author_counts (author, books) VALUES (new.author, 1)
+                    ON CONFLICT (author) DO UPDATE SET books = books + 1;
+                INSERT INTO book_category_counts (category, books) VALUES (new.category, 1)
+                    ON CONFLICT (category) DO UPDATE SET books = books + 1;
+            END
+        """);
+        
+        // Covers checkouts, returns, soft deletes, edits and import upserts
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS books_stats_update AFTER UPDATE OF available_copies, is_active, author, category ON books BEGIN
+                UPDATE library_stats SET
+                    active_books = active_books - old.is_active + new.is_active,
+                    available_books = available_books - (old.is_active AND old.available_copies > 0)
+                                                      + (new.is_active AND new.available_copies > 0)
+                WHERE id = 1;
+                UPDATE book_author_counts SET books = books - 1
+                    WHERE author = old.author AND old.is_active AND NOT (new.is_active AND new.author = old.author);
+                DELETE FROM book_author_counts WHERE author = old.author AND books <= 0;
+                INSERT INTO book_author_counts (author, books) SELECT new.author, 1
+                    WHERE new.is_active AND NOT (old.is_active AND old.author = new.author)
+                    ON CONFLICT (author) DO UPDATE SET books = books + 1;
+                UPDATE book_category_counts SET books = books - 1
+                    WHERE category = old.category AND old.is_active AND NOT (new.is_active AND new.category = old.category);
+                DELETE FROM book_category_counts WHERE category = old.category AND books <= 0;
+                INSERT INTO book_category_counts (category, books) SELECT new.category, 1
+                    WHERE new.is_active AND NOT (old.is_active AND old.category = new.category)
+                    ON CONFLICT (category) DO UPDATE SET books = books + 1;
+            END
+        """);
+        
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS books_stats_delete AFTER DELETE ON books WHEN old.is_active BEGIN
+                UPDATE library_stats SET active_books = active_books - 1,
+                    available_books = available_books - (old.available_copies > 0)
+                WHERE id = 1;
+                UPDATE book_author_counts SET books = books - 1 WHERE author = old.author;
+                DELETE FROM book_author_counts WHERE author = old.author AND books <= 0;
+                UPDATE book_category_counts SET books = books - 1 WHERE category = old.category;
+                DELETE FROM book_category_counts WHERE category = old.category AND books <= 0;
+            END
+        """);
+        
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS members_stats_insert AFTER INSERT ON members WHEN new.is_active BEGIN
+                UPDATE library_stats SET active_members = active_members + 1 WHERE id = 1;
+            END
+        """);
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS members_stats_update AFTER UPDATE OF is_active ON members BEGIN
+                UPDATE library_stats SET active_members = active_members - old.is_active + new.is_active WHERE id = 1;
+            END
+        """);
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS members_stats_delete AFTER DELETE ON members WHEN old.is_active BEGIN
+                UPDATE library_stats SET active_members = active_members - 1 WHERE id = 1;
+            END
+        """);
+        
+        // A loan is open while BORROWED or OVERDUE. It counts as overdue once flagged, or
+        // while still BORROWED past the cutoff, so flagging it leaves the counters unchanged.
+        // Recreated on every start so older databases pick up the OVERDUE status.
+        stmt.execute("DROP TRIGGER IF EXISTS borrow_records_stats_insert");
+        stmt.execute("DROP TRIGGER IF EXISTS borrow_records_stats_update");
+        stmt.execute("DROP TRIGGER IF EXISTS borrow_records_stats_delete");
+        stmt.execute("""
+            CREATE TRIGGER borrow_records_stats_insert AFTER INSERT ON borrow_records BEGIN
+                UPDATE library_stats SET borrow_records = borrow_records + 1,
+                    active_borrows = active_borrows + (new.status IN ('BORROWED', 'OVERDUE')),
+                    overdue_borrows = overdue_borrows + (new.status = 'OVERDUE' OR (new.status = 'BORROWED' AND new.due_date < overdue_cutoff))
+                WHERE id = 1;
+            END
+        """);
+        stmt.execute("""
+            CREATE TRIGGER borrow_records_stats_update AFTER UPDATE OF status, due_date ON borrow_records BEGIN
+                UPDATE library_stats SET
+                    active_borrows = active_borrows - (old.status IN ('BORROWED', 'OVERDUE'))
+                                                    + (new.status IN ('BORROWED', 'OVERDUE')),
+                    overdue_borrows = overdue_borrows - (old.status = 'OVERDUE' OR (old.status = 'BORROWED' AND old.due_date < overdue_cutoff))
+                                                      + (new.status = 'OVERDUE' OR (new.status = 'BORROWED' AND new.due_date < overdue_cutoff))
+                WHERE id = 1;
+            END
+        """);
+        stmt.execute("""
+            CREATE TRIGGER borrow_records_stats_delete AFTER DELETE ON borrow_records BEGIN
+                UPDATE library_stats SET borrow_records = borrow_records - 1,
+                    active_borrows = active_borrows - (old.status IN ('BORROWED', 'OVERDUE')),
+                    overdue_borrows = overdue_borrows - (old.status = 'OVERDUE' OR (old.status = 'BORROWED' AND old.due_date < overdue_cutoff))
+                WHERE id = 1;
+            END
+        """);
+    }
+    
+    /**
+     * Creates the overdue_state row used by OverdueService. fines_accrued_through is the
+     * last day whose fine has been added to every OVERDUE loan, null until the first check.
+     * Advancing it in the same transaction as the accrual stops two processes charging the
+     * same day twice.
+     */
+    private void initializeOverdueTracking(Statement stmt) throws SQLException {
+        stmt.execute("""
+            CREATE TABLE IF NOT EXISTS overdue_state (
+                id INTEGER PRIMARY KEY CHECK (id = 1),
+                fines_accrued_through DATE
+            )
+        """);
+        stmt.execute("INSERT OR IGNORE INTO overdue_state (id) VALUES (1)");
+    }
+    
+    /**
+     * Creates borrow_status_log, which records the rowid of every borrow record whose status
+     * changes. BorrowHistoryStore replays it to keep its in-memory copy current; new records
+     * need no entry, the store picks them up by rowid. AUTOINCREMENT keeps sequence numbers
+     * from being reused after old entries are pruned.
+     */
+    private void initializeBorrowStatusLog(Statement stmt) throws SQLException {
+        stmt.execute("""
+            CREATE TABLE IF NOT EXISTS borrow_status_log (
+                seq INTEGER PRIMARY KEY AUTOINCREMENT,
+                record_rowid INTEGER NOT NULL
+            )
+        """);
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS borrow_records_status_log AFTER UPDATE OF status ON borrow_records
+            WHEN new.status IS NOT old.status BEGIN
+                INSERT INTO borrow_status_log (record_rowid) VALUES (new.rowid);
+            END
+        """);
+    }
+    
     public void testConnection() throws DatabaseException {
         try (Connection conn = getConnection()) {
             if (conn != null && !conn.isClosed()) {
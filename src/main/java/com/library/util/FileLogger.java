@@ -3,21 +3,63 @@ package com.library.util;
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
 
 /**
  * Singleton utility class for file-based logging
  * Demonstrates file I/O operations using BufferedWriter
+ *
+ * In async mode callers only enqueue an event into a lock-free ring buffer;
+ * a single writer thread formats entries and keeps the log file open.
+ *
+ * Entries below log.level are discarded before any formatting. Use the
+ * Supplier or "{}" overloads so a disabled level costs no string building.
  */
 public class FileLogger {
+    /**
+     * What a caller does when the async buffer is full
+     */
+    public enum OverflowPolicy {
+        BLOCK,   // wait for the writer to make room
+        DROP,    // discard the entry
+        SAMPLE   // keep errors and every Nth entry, discard the rest
+    }
+    
+    // Severity order used by log.level; unknown levels are always written
+    private static final String[] LEVELS = { "DEBUG", "INFO", "WARNING", "ERROR" };
+    
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    
     private static FileLogger instance;
     private final String logFileName;
     private final DateTimeFormatter formatter;
+    private volatile int minimumSeverity;
+    
+    // Async mode state
+    private volatile LogRingBuffer<LogEvent> buffer;
+    private volatile Thread writerThread;
+    private volatile boolean running;
+    private volatile boolean writerParked;
+    private volatile OverflowPolicy overflowPolicy;
+    private volatile int sampleRate;
+    private volatile long flushIntervalNanos;
+    private final AtomicLong droppedEntries;
+    private final AtomicLong overflowCounter;
     
     private FileLogger() {
         this.logFileName = "library_system.log";
         this.formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        this.overflowPolicy = OverflowPolicy.BLOCK;
+        this.sampleRate = 10;
+        this.droppedEntries = new AtomicLong();
+        this.overflowCounter = new AtomicLong();
     }
     
     public static synchronized FileLogger getInstance() {
@@ -27,20 +69,149 @@ public class FileLogger {
         return instance;
     }
     
+    /**
+     * Applies the log.* settings; called by ConfigReader once configuration is loaded
+     */
+    void configure(ConfigReader config) {
+        setLevel(config.getProperty("log.level", "INFO"));
+        
+        if (config.getBooleanProperty("log.async.enabled", false)) {
+            OverflowPolicy policy;
+            try {
+                policy = OverflowPolicy.valueOf(config.getProperty("log.async.overflow.policy", "BLOCK").trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                policy = OverflowPolicy.BLOCK;
+            }
+            enableAsync(config.getIntProperty("log.async.queue.size", 8192),
+                policy,
+                config.getIntProperty("log.async.sample.rate", 10),
+                config.getIntProperty("log.async.flush.interval.ms", 200));
+        }
+    }
+    
+    /**
+     * Switches to asynchronous logging; a no-op if async mode is already running
+     */
+    public synchronized void enableAsync(int queueSize, OverflowPolicy policy, int sampleRate, long flushIntervalMillis) {
+        if (running) {
+            return;
+        }
+        this.overflowPolicy = policy;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushIntervalMillis));
+        this.buffer = new LogRingBuffer<>(queueSize);
+        this.running = true;
+        
+        Thread thread = new Thread(this::runWriter, "library-log-writer");
+        thread.setDaemon(true);
+        this.writerThread = thread;
+        thread.start();
+        
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "library-log-shutdown"));
+    }
+    
+    public boolean isAsync() {
+        return running;
+    }
+    
+    /**
+     * Sets the lowest level that is written; an unknown name leaves every level enabled
+     */
+    public void setLevel(String level) {
+        int severity = severityOf(level);
+        this.minimumSeverity = severity >= 0 ? severity : 0;
+    }
+    
+    public String getLevel() {
+        return LEVELS[minimumSeverity];
+    }
+    
+    public boolean isEnabled(String level) {
+        int severity = severityOf(level);
+        return severity < 0 || severity >= minimumSeverity;
+    }
+    
+    private static int severityOf(String level) {
+        if (level == null) {
+            return -1;
+        }
+        String name = level.trim().toUpperCase();
+        if ("WARN".equals(name)) {
+            return 2;
+        }
+        for (int i = 0; i < LEVELS.length; i++) {
+            if (LEVELS[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
     // Method overloading for different log methods
     public void log(String level, String message) {
-        log(level, message, null);
+        log(level, message, (Exception) null);
+    }
+    
+    /**
+     * Builds the message only if the level is enabled
+     */
+    public void log(String level, Supplier<String> messageSupplier) {
+        if (isEnabled(level)) {
+            write(level, messageSupplier.get(), null);
+        }
+    }
+    
+    /**
+     * Replaces each "{}" in the pattern with the next argument, only if the level is enabled
+     */
+    public void log(String level, String pattern, Object... arguments) {
+        if (isEnabled(level)) {
+            write(level, substitute(pattern, arguments), null);
+        }
     }
     
     public void log(String level, String message, Exception exception) {
-        String timestamp = LocalDateTime.now().format(formatter);
-        String logEntry = String.format("[%s] %s: %s", timestamp, level, message);
+        if (isEnabled(level)) {
+            write(level, message, exception);
+        }
+    }
+    
+    private static String substitute(String pattern, Object[] arguments) {
+        if (arguments == null || arguments.length == 0) {
+            return pattern;
+        }
+        StringBuilder result = new StringBuilder(pattern.length() + 16 * arguments.length);
+        int start = 0;
+        int argument = 0;
+        int placeholder;
+        while (argument < arguments.length && (placeholder = pattern.indexOf("{}", start)) >= 0) {
+            result.append(pattern, start, placeholder).append(arguments[argument++]);
+            start = placeholder + 2;
+        }
+        return result.append(pattern, start, pattern.length()).toString();
+    }
+    
+    private void write(String level, String message, Exception exception) {
+        String exceptionMessage = exception != null ? exception.getMessage() : null;
         
-        if (exception != null) {
-            logEntry += " - Exception: " + exception.getMessage();
+        if (running) {
+            enqueue(new LogEvent(System.currentTimeMillis(), level, message, exceptionMessage));
+            return;
         }
         
-        writeToFile(logEntry);
+        writeToFile(format(LocalDateTime.now(), level, message, exceptionMessage));
+    }
+    
+    private String format(LocalDateTime time, String level, String message, String exceptionMessage) {
+        StringBuilder logEntry = new StringBuilder(64)
+            .append('[').append(time.format(formatter)).append("] ")
+            .append(level).append(": ").append(message);
+        
+        if (exceptionMessage != null) {
+            logEntry.append(" - Exception: ").append(exceptionMessage);
+        }
+        
+        return logEntry.toString();
     }
     
     private synchronized void writeToFile(String logEntry) {
@@ -55,6 +226,187 @@ public class FileLogger {
         }
     }
     
+    private void enqueue(LogEvent event) {
+        LogRingBuffer<LogEvent> ring = buffer;
+        if (ring.offer(event)) {
+            if (writerParked) {
+                LockSupport.unpark(writerThread);
+            }
+            return;
+        }
+        
+        LockSupport.unpark(writerThread);
+        
+        boolean keep;
+        switch (overflowPolicy) {
+            case DROP:
+                keep = false;
+                break;
+            case SAMPLE:
+                keep = "ERROR".equals(event.level) || overflowCounter.incrementAndGet() % sampleRate == 0;
+                break;
+            default:
+                keep = true;
+        }
+        
+        if (!keep) {
+            droppedEntries.incrementAndGet();
+            return;
+        }
+        
+        while (!ring.offer(event)) {
+            if (!running) {
+                // Writer is gone; write through rather than lose the entry
+                writeToFile(format(toLocalDateTime(event.timestamp), event.level, event.message, event.exceptionMessage));
+                return;
+            }
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+        }
+    }
+    
+    private void runWriter() {
+        BufferedWriter writer = null;
+        long lastFlush = System.nanoTime();
+        int unflushed = 0;
+        
+        while (running || !buffer.isEmpty()) {
+            LogEvent event = buffer.poll();
+            
+            if (event == null) {
+                if (unflushed > 0) {
+                    writer = flush(writer);
+                    unflushed = 0;
+                    lastFlush = System.nanoTime();
+                }
+                writerParked = true;
+                if (buffer.isEmpty() && running) {
+                    LockSupport.parkNanos(flushIntervalNanos);
+                }
+                writerParked = false;
+                continue;
+            }
+            
+            if (writer == null) {
+                writer = open();
+            }
+            writer = write(writer, reportDrops());
+            writer = write(writer, format(toLocalDateTime(event.timestamp), event.level, event.message, event.exceptionMessage));
+            unflushed++;
+            
+            // Flush in batches, but never let a busy stream go unflushed for a whole interval
+            if (unflushed >= buffer.capacity() / 4 || System.nanoTime() - lastFlush >= flushIntervalNanos) {
+                writer = flush(writer);
+                unflushed = 0;
+                lastFlush = System.nanoTime();
+            }
+        }
+        
+        writer = write(writer, reportDrops());
+        close(writer);
+    }
+    
+    private String reportDrops() {
+        long dropped = droppedEntries.getAndSet(0);
+        if (dropped == 0) {
+            return null;
+        }
+        return format(LocalDateTime.now(), "WARNING", dropped + " log entries dropped because the log buffer was full", null);
+    }
+    
+    private BufferedWriter open() {
+        try {
+            return new BufferedWriter(new FileWriter(logFileName, true), 64 * 1024);
+        } catch (IOException e) {
+            System.err.println("Failed to open log file: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    private BufferedWriter write(BufferedWriter writer, String logEntry) {
+        if (logEntry == null) {
+            return writer;
+        }
+        if (writer == null) {
+            writer = open();
+        }
+        try {
+            if (writer == null) {
+                throw new IOException("log file is not open");
+            }
+            writer.write(logEntry);
+            writer.newLine();
+            return writer;
+        } catch (IOException e) {
+            System.err.println("Failed to write to log file: " + e.getMessage());
+            System.err.println("Log entry: " + logEntry);
+            close(writer);
+            return null;
+        }
+    }
+    
+    private BufferedWriter flush(BufferedWriter writer) {
+        if (writer == null) {
+            return null;
+        }
+        try {
+            writer.flush();
+            return writer;
+        } catch (IOException e) {
+            System.err.println("Failed to flush log file: " + e.getMessage());
+            close(writer);
+            return null;
+        }
+    }
+    
+    private void close(BufferedWriter writer) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close log file: " + e.getMessage());
+        }
+    }
+    
+    private LocalDateTime toLocalDateTime(long timestamp) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault());
+    }
+    
+    /**
+     * Stops async mode after writing every queued entry to the file
+     */
+    public void shutdown() {
+        Thread thread;
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            thread = writerThread;
+        }
+        
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        // Entries enqueued while the writer was finishing up
+        if (!thread.isAlive()) {
+            LogEvent event;
+            while ((event = buffer.poll()) != null) {
+                writeToFile(format(toLocalDateTime(event.timestamp), event.level, event.message, event.exceptionMessage));
+            }
+        }
+    }
+    
+    public long getDroppedEntries() {
+        return droppedEntries.get();
+    }
+    
     public void logError(String message, Exception exception) {
         log("ERROR", message, exception);
     }
@@ -71,9 +423,13 @@ public class FileLogger {
         log("DEBUG", message);
     }
     
+    public void logDebug(Supplier<String> messageSupplier) {
+        log("DEBUG", messageSupplier);
+    }
+    
     // Method to create a backup of current log
     public boolean createBackup() {
-        String backupFileName = "library_system_backup_" + 
+        String backupFileName = "library_system_backup_" +
             LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".log";
         
         try (BufferedWriter backup = new BufferedWriter(new FileWriter(backupFileName))) {
@@ -93,4 +449,21 @@ public class FileLogger {
     public String getLogFileName() {
         return logFileName;
     }
+    
+    /**
+     * A log call captured on the caller thread; formatted later by the writer
+     */
+    private static final class LogEvent {
+        private final long timestamp;
+        private final String level;
+        private final String message;
+        private final String exceptionMessage;
+        
+        LogEvent(long timestamp, String level, String message, String exceptionMessage) {
+            this.timestamp = timestamp;
+            this.level = level;
+            this.message = message;
+            this.exceptionMessage = exceptionMessage;
+        }
+    }
 }
@@ -0,0 +1,117 @@
+package com.library.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size-bounded cache that evicts the least recently used entry.
+ * A cache with a capacity of zero is disabled and never stores anything.
+ *
+ * Loads race with invalidations, so callers take a stamp before reading the
+ * database and store the result with putIfUnchanged; a load that overlapped
+ * any invalidation is simply not cached.
+ */
+public class LruCache<K, V> {
+    private final String name;
+    private final int capacity;
+    private final LinkedHashMap<K, V> entries;
+    private long stamp;
+    private long hits;
+    private long misses;
+    private long evictions;
+    
+    public LruCache(String name, int capacity) {
+        this.name = name;
+        this.capacity = Math.max(0, capacity);
+        this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > LruCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+    
+    public boolean isEnabled() {
+        return capacity > 0;
+    }
+    
+    /**
+     * @return the cached value, or null on a miss
+     */
+    public synchronized V get(K key) {
+        if (capacity == 0) {
+            return null;
+        }
+        V value = entries.get(key);
+        if (value != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return value;
+    }
+    
+    /**
+     * Stamp to pass to putIfUnchanged for a value about to be loaded
+     */
+    public synchronized long getStamp() {
+        return stamp;
+    }
+    
+    /**
+     * Stores a loaded value unless an invalidation happened since the stamp was taken
+     * @return true if the value was stored
+     */
+    public synchronized boolean putIfUnchanged(K key, V value, long loadStamp) {
+        if (capacity == 0 || value == null || loadStamp != stamp) {
+            return false;
+        }
+        entries.put(key, value);
+        return true;
+    }
+    
+    public synchronized void invalidate(K key) {
+        stamp++;
+        entries.remove(key);
+    }
+    
+    public synchronized void clear() {
+        stamp++;
+        entries.clear();
+    }
+    
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    public synchronized long getHits() {
+        return hits;
+    }
+    
+    public synchronized long getMisses() {
+        return misses;
+    }
+    
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+    
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+    
+    @Override
+    public synchronized String toString() {
+        return String.format("LruCache{name=%s, size=%d/%d, hits=%d, misses=%d, evictions=%d, hitRate=%.1f%%}",
+            name, entries.size(), capacity, hits, misses, evictions, getHitRate() * 100);
+    }
+}
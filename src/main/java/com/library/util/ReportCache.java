@@ -0,0 +1,140 @@
+package com.library.util;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finished reports kept as their lines, keyed by report type and parameters.
+ * A report is fresh for a TTL after it was built, or until a write invalidates it. A stale
+ * report is still served for a grace period while one background refresh rebuilds it, so
+ * busy hours of writes do not make every reader wait; past that, readers rebuild it.
+ *
+ * Loads race with invalidations as in LruCache: callers take a stamp before building a
+ * report, and one built across an invalidation is stored already stale.
+ * A TTL of zero disables the cache.
+ */
+public class ReportCache {
+    private final long ttlMillis;
+    private final long staleMillis;
+    private final int maxLines;
+    private final Map<String, Entry> entries;
+    private long stamp;
+    private long lastInvalidated;
+    private long hits;
+    private long staleHits;
+    private long misses;
+    
+    private static final class Entry {
+        final List<String> lines;
+        long staleAt;
+        boolean refreshing;
+        
+        Entry(List<String> lines, long staleAt) {
+            this.lines = lines;
+            this.staleAt = staleAt;
+        }
+    }
+    
+    public ReportCache(long ttlMillis, long staleMillis, int maxLines) {
+        this.ttlMillis = Math.max(0, ttlMillis);
+        this.staleMillis = Math.max(0, staleMillis);
+        this.maxLines = Math.max(0, maxLines);
+        this.entries = new HashMap<>();
+    }
+    
+    public boolean isEnabled() {
+        return ttlMillis > 0 && maxLines > 0;
+    }
+    
+    /**
+     * Longest report worth caching; longer ones are streamed every time
+     */
+    public int getMaxLines() {
+        return maxLines;
+    }
+    
+    /**
+     * Returns the report if it is fresh, or stale within the grace period. In the latter
+     * case the loader is started on AsyncExecutor, unless a refresh is already running.
+     * @param loader rebuilds the report, returning null if the result must not be cached
+     * @return the cached lines, or null if the caller has to build the report
+     */
+    public synchronized List<String> get(String key, AsyncExecutor.Task<List<String>> loader) {
+        if (!isEnabled()) {
+            return null;
+        }
+        Entry entry = entries.get(key);
+        long now = System.currentTimeMillis();
+        if (entry == null || now >= entry.staleAt + staleMillis) {
+            misses++;
+            return null;
+        }
+        if (now < entry.staleAt) {
+            hits++;
+            return entry.lines;
+        }
+        
+        staleHits++;
+        if (!entry.refreshing) {
+            entry.refreshing = true;
+            refresh(key, entry, loader);
+        }
+        return entry.lines;
+    }
+    
+    private void refresh(String key, Entry entry, AsyncExecutor.Task<List<String>> loader) {
+        long loadStamp = stamp;
+        AsyncExecutor.getInstance().submit(loader).whenComplete((lines, error) -> {
+            if (error != null) {
+                FileLogger.getInstance().log("WARNING", "Failed to refresh cached report {}: {}", key, error.getMessage());
+            }
+            synchronized (this) {
+                entry.refreshing = false;
+                if (lines != null) {
+                    put(key, lines, loadStamp);
+                }
+            }
+        });
+    }
+    
+    /**
+     * Stamp to pass to put for a report about to be built
+     */
+    public synchronized long getStamp() {
+        return stamp;
+    }
+    
+    /**
+     * Stores a report built from the given stamp; stale at once if an invalidation came since
+     */
+    public synchronized void put(String key, List<String> lines, long loadStamp) {
+        if (isEnabled() && lines.size() <= maxLines) {
+            long staleAt = loadStamp == stamp ? System.currentTimeMillis() + ttlMillis : lastInvalidated;
+            entries.put(key, new Entry(List.copyOf(lines), staleAt));
+        }
+    }
+    
+    /**
+     * Marks every report stale after a write it may depend on
+     */
+    public synchronized void invalidateAll() {
+        stamp++;
+        lastInvalidated = System.currentTimeMillis();
+        for (Entry entry : entries.values()) {
+            entry.staleAt = Math.min(entry.staleAt, lastInvalidated);
+        }
+    }
+    
+    public synchronized void clear() {
+        stamp++;
+        lastInvalidated = System.currentTimeMillis();
+        entries.clear();
+    }
+    
+    @Override
+    public synchronized String toString() {
+        return String.format("ReportCache{size=%d, hits=%d, staleHits=%d, misses=%d}",
+            entries.size(), hits, staleHits, misses);
+    }
+}
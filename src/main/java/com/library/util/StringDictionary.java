@@ -0,0 +1,116 @@
+package com.library.util;
+
+import java.util.Arrays;
+
+/**
+ * Append-only dictionary assigning dense int codes (0, 1, 2, ...) to strings such as
+ * ISBNs and member IDs. Codes index plain arrays, so counts and sets keyed by them are
+ * int[] or boolean[] rather than boxed maps.
+ *
+ * Lookups probe an open-addressing table of codes with linear probing; keys are never
+ * boxed and each code keeps its hash, so most misses compare no strings. Calls are
+ * synchronized, so one loader may add codes while reports look them up.
+ */
+public class StringDictionary {
+    private static final int MIN_CAPACITY = 16;
+    
+    private String[] values;
+    private int[] hashes;
+    // Code + 1 per slot, 0 for an empty slot; the length is a power of two
+    private int[] slots;
+    private int size;
+    
+    public StringDictionary() {
+        this(MIN_CAPACITY);
+    }
+    
+    public StringDictionary(int expectedSize) {
+        int capacity = Math.max(MIN_CAPACITY, expectedSize);
+        this.values = new String[capacity];
+        this.hashes = new int[capacity];
+        this.slots = new int[tableSizeFor(capacity)];
+    }
+    
+    /**
+     * @return the value's code, adding it if it is new
+     */
+    public synchronized int encode(String value) {
+        int hash = hash(value);
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        while (slots[slot] != 0) {
+            int code = slots[slot] - 1;
+            if (hashes[code] == hash && values[code].equals(value)) {
+                return code;
+            }
+            slot = (slot + 1) & mask;
+        }
+        
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        int code = size++;
+        values[code] = value;
+        hashes[code] = hash;
+        slots[slot] = code + 1;
+        if (size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        return code;
+    }
+    
+    /**
+     * @return the value's code, or -1 if it has none
+     */
+    public synchronized int codeOf(String value) {
+        int hash = hash(value);
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int code = slots[slot] - 1;
+            if (hashes[code] == hash && values[code].equals(value)) {
+                return code;
+            }
+        }
+        return -1;
+    }
+    
+    public synchronized String decode(int code) {
+        if (code < 0 || code >= size) {
+            throw new IndexOutOfBoundsException("No value for code " + code + " in dictionary of " + size);
+        }
+        return values[code];
+    }
+    
+    public synchronized int size() {
+        return size;
+    }
+    
+    private void rehash(int tableSize) {
+        int[] table = new int[tableSize];
+        int mask = tableSize - 1;
+        for (int code = 0; code < size; code++) {
+            int slot = hashes[code] & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = code + 1;
+        }
+        slots = table;
+    }
+    
+    /**
+     * Spreads String.hashCode so keys differing only in their last characters do not cluster
+     */
+    private static int hash(String value) {
+        int h = value.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+    
+    /**
+     * Smallest power of two at least twice the capacity, keeping the table at most half full
+     */
+    private static int tableSizeFor(int capacity) {
+        return Integer.highestOneBit(capacity * 2 - 1) << 1;
+    }
+}
@@ -0,0 +1,144 @@
+package com.library.util;
+
+import com.library.exception.DatabaseException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit of work bound to the current thread.
+ * While a transaction is open, every DAO call made on the same thread runs on
+ * its connection, so the whole unit commits or rolls back together.
+ *
+ * <pre>
+ * try (Transaction tx = DatabaseConnection.getInstance().beginTransaction()) {
+ *     ...DAO calls...
+ *     tx.commit();
+ * }
+ * </pre>
+ *
+ * A read transaction (beginReadTransaction) is opened with a plain BEGIN, which is
+ * DEFERRED whatever transaction_mode the connection has, so it takes no write lock.
+ */
+public class Transaction implements AutoCloseable {
+    private final DatabaseConnection owner;
+    private final Connection connection;
+    private final Connection sharedConnection;
+    private final List<Runnable> completionCallbacks;
+    private final boolean readOnly;
+    private boolean completed;
+    
+    Transaction(DatabaseConnection owner, Connection connection, boolean readOnly) throws SQLException {
+        this.owner = owner;
+        this.connection = connection;
+        this.sharedConnection = nonClosing(connection);
+        this.completionCallbacks = new ArrayList<>();
+        this.readOnly = readOnly;
+        if (readOnly) {
+            // Left in auto-commit, where the driver does not issue its own BEGIN IMMEDIATE
+            execute("BEGIN");
+        } else {
+            connection.setAutoCommit(false);
+        }
+    }
+    
+    private void execute(String sql) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+    
+    /**
+     * Connection handed to DAOs joining this transaction; closing it is a no-op
+     */
+    Connection getSharedConnection() {
+        return sharedConnection;
+    }
+    
+    /**
+     * Registers work to run once the transaction has committed or rolled back
+     */
+    public void onCompletion(Runnable callback) {
+        completionCallbacks.add(callback);
+    }
+    
+    public void commit() throws DatabaseException {
+        if (completed) {
+            throw new DatabaseException("Transaction already completed");
+        }
+        try {
+            if (readOnly) {
+                execute("COMMIT");
+            } else {
+                connection.commit();
+            }
+            completed = true;
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed to commit transaction: " + e.getMessage(), e);
+        }
+    }
+    
+    public void rollback() {
+        if (completed) {
+            return;
+        }
+        completed = true;
+        try {
+            if (readOnly) {
+                execute("ROLLBACK");
+            } else {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            FileLogger.getInstance().log("ERROR", "Failed to roll back transaction: " + e.getMessage());
+        }
+    }
+    
+    public boolean isCompleted() {
+        return completed;
+    }
+    
+    @Override
+    public void close() {
+        try {
+            rollback();
+            try {
+                connection.setAutoCommit(true);
+                connection.close();
+            } catch (SQLException e) {
+                FileLogger.getInstance().log("WARNING", "Failed to release transaction connection: " + e.getMessage());
+            }
+        } finally {
+            owner.endTransaction(this);
+            for (Runnable callback : completionCallbacks) {
+                callback.run();
+            }
+        }
+    }
+    
+    private static Connection nonClosing(Connection target) {
+        return (Connection) Proxy.newProxyInstance(
+            Transaction.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "close":
+                        return null;
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        try {
+                            return method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                }
+            });
+    }
+}